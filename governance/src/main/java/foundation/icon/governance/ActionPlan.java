@@ -0,0 +1,295 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import com.eclipsesource.json.JsonArray;
+import com.eclipsesource.json.JsonObject;
+import score.Address;
+import score.Context;
+import score.ObjectReader;
+import score.ObjectWriter;
+import scorex.util.ArrayList;
+
+import java.math.BigInteger;
+
+/*
+    Actions of a network proposal converted from the JSON value once on registration,
+    so applying the proposal needs no JSON parsing and string conversion.
+*/
+public class ActionPlan {
+    private final Action[] actions;
+
+    public ActionPlan(Action[] actions) {
+        this.actions = actions;
+    }
+
+    public Action[] getActions() {
+        return actions;
+    }
+
+    public static ActionPlan fromJson(JsonArray values) {
+        int length = values.size();
+        var actions = new Action[length];
+        for (int i = 0; i < length; i++) {
+            var object = values.get(i).asObject();
+            actions[i] = Action.fromJson(object.getString("name", ""), object.get("value").asObject());
+        }
+        return new ActionPlan(actions);
+    }
+
+    // contents embedded in the values of network SCORE updates are not written in the plan
+    boolean hasEmbeddedContent() {
+        for (Action a : actions) {
+            if (a.isEmbeddedUpdate()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void loadEmbeddedContents(JsonArray values) {
+        for (int i = 0; i < actions.length; i++) {
+            var a = actions[i];
+            if (a.isEmbeddedUpdate()) {
+                var value = values.get(i).asObject().get("value").asObject();
+                a.content = Converter.hexToBytes(value.getString("content", null));
+            }
+        }
+    }
+
+    public static void writeObject(ObjectWriter w, ActionPlan p) {
+        w.beginList(p.actions.length);
+        for (Action a : p.actions) {
+            w.write(a);
+        }
+        w.end();
+    }
+
+    public static ActionPlan readObject(ObjectReader r) {
+        r.beginList();
+        var actions = new ArrayList<Action>();
+        while (r.hasNext()) {
+            actions.add(r.read(Action.class));
+        }
+        r.end();
+        var array = new Action[actions.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = actions.get(i);
+        }
+        return new ActionPlan(array);
+    }
+
+    public static class Action {
+        final String name;
+        // revision, type of malicious score, step price, iglobal or slashing rate
+        BigInteger number;
+        // malicious score, disqualified prep or updated network SCORE
+        Address address;
+        Value.StepCosts stepCosts;
+        Value.RewardFunds rewardFunds;
+        // network SCORE designation, address is null for deallocation
+        String[] roles;
+        Address[] scores;
+        // network SCORE update, params is null if the deployment has no parameters.
+        // content is not stored, it's decoded from the proposal value or loaded from ContentStore by contentHash
+        byte[] content;
+        byte[] contentHash;
+        String[] params;
+        Request request;
+
+        Action(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        boolean isEmbeddedUpdate() {
+            return name.equals(Value.NETWORK_SCORE_UPDATE_TYPE) && content == null && contentHash == null;
+        }
+
+        public static Action fromJson(String name, JsonObject value) {
+            var a = new Action(name);
+            switch (name) {
+                case Value.TEXT_TYPE:
+                    break;
+                case Value.REVISION_TYPE:
+                    a.number = Converter.toInteger(value.getString("revision", null));
+                    break;
+                case Value.MALICIOUS_SCORE_TYPE:
+                    a.number = Converter.toInteger(value.getString("type", null));
+                    a.address = Converter.toAddress(value.getString("address", null));
+                    break;
+                case Value.PREP_DISQUALIFICATION_TYPE:
+                    a.address = Converter.toAddress(value.getString("address", null));
+                    break;
+                case Value.STEP_PRICE_TYPE:
+                    a.number = Converter.toInteger(value.getString("stepPrice", null));
+                    break;
+                case Value.STEP_COSTS_TYPE:
+                    a.stepCosts = Value.StepCosts.fromJson(value.get("costs").asObject());
+                    break;
+                case Value.REWARD_FUND_TYPE:
+                    a.number = Converter.toInteger(value.getString("iglobal", null));
+                    break;
+                case Value.REWARD_FUNDS_ALLOCATION:
+                    a.rewardFunds = Value.RewardFunds.fromJson(value.get("rewardFunds").asObject());
+                    break;
+                case Value.NETWORK_SCORE_DESIGNATION_TYPE: {
+                    var networkScores = value.get("networkScores").asArray();
+                    int length = networkScores.size();
+                    a.roles = new String[length];
+                    a.scores = new Address[length];
+                    for (int i = 0; i < length; i++) {
+                        var v = networkScores.get(i).asObject();
+                        a.roles[i] = v.getString("role", null);
+                        a.scores[i] = Converter.toAddress(v.getString("address", null));
+                    }
+                    break;
+                }
+                case Value.NETWORK_SCORE_UPDATE_TYPE: {
+                    a.address = Converter.toAddress(value.getString("address", null));
+                    var contentHash = value.getString("contentHash", null);
+                    if (contentHash != null) {
+                        a.contentHash = Converter.hexToBytes(contentHash);
+                    } else {
+                        a.content = Converter.hexToBytes(value.getString("content", null));
+                    }
+                    var params = value.get("params");
+                    if (params != null) {
+                        var p = params.asArray();
+                        a.params = new String[p.size()];
+                        for (int i = 0; i < a.params.length; i++) {
+                            a.params[i] = p.get(i).asString();
+                        }
+                    }
+                    break;
+                }
+                case Value.ACCUMULATED_VALIDATION_FAILURE_SLASHING_RATE:
+                case Value.MISSED_NETWORK_PROPOSAL_VOTE_SLASHING_RATE:
+                    a.number = Converter.toInteger(value.getString("slashingRate", null));
+                    break;
+                case Value.CALL:
+                    a.request = Request.fromJson(value);
+                    break;
+                default:
+                    Context.revert("undefined proposal type");
+            }
+            return a;
+        }
+
+        public static void writeObject(ObjectWriter w, Action a) {
+            w.beginList(2);
+            w.write(a.name);
+            switch (a.name) {
+                case Value.NETWORK_SCORE_DESIGNATION_TYPE:
+                    w.beginList(a.roles.length);
+                    for (int i = 0; i < a.roles.length; i++) {
+                        w.beginList(2);
+                        w.write(a.roles[i]);
+                        w.writeNullable(a.scores[i]);
+                        w.end();
+                    }
+                    w.end();
+                    break;
+                case Value.NETWORK_SCORE_UPDATE_TYPE:
+                    w.beginList(a.contentHash != null ? 3 : 2);
+                    w.write(a.address);
+                    if (a.params == null) {
+                        w.writeNull();
+                    } else {
+                        w.beginList(a.params.length);
+                        for (String p : a.params) {
+                            w.write(p);
+                        }
+                        w.end();
+                    }
+                    if (a.contentHash != null) {
+                        w.write(a.contentHash);
+                    }
+                    w.end();
+                    break;
+                default:
+                    w.beginList(5);
+                    w.writeNullable(a.number);
+                    w.writeNullable(a.address);
+                    w.writeNullable(a.stepCosts);
+                    w.writeNullable(a.rewardFunds);
+                    w.writeNullable(a.request);
+                    w.end();
+            }
+            w.end();
+        }
+
+        public static Action readObject(ObjectReader r) {
+            r.beginList();
+            var a = new Action(r.readString());
+            switch (a.name) {
+                case Value.NETWORK_SCORE_DESIGNATION_TYPE: {
+                    r.beginList();
+                    var roles = new ArrayList<String>();
+                    var scores = new ArrayList<Address>();
+                    while (r.hasNext()) {
+                        r.beginList();
+                        roles.add(r.readString());
+                        scores.add(r.readNullable(Address.class));
+                        r.end();
+                    }
+                    r.end();
+                    a.roles = new String[roles.size()];
+                    a.scores = new Address[scores.size()];
+                    for (int i = 0; i < a.roles.length; i++) {
+                        a.roles[i] = roles.get(i);
+                        a.scores[i] = scores.get(i);
+                    }
+                    break;
+                }
+                case Value.NETWORK_SCORE_UPDATE_TYPE: {
+                    r.beginList();
+                    a.address = r.readAddress();
+                    if (r.beginNullableList()) {
+                        var params = new ArrayList<String>();
+                        while (r.hasNext()) {
+                            params.add(r.readString());
+                        }
+                        r.end();
+                        a.params = new String[params.size()];
+                        for (int i = 0; i < a.params.length; i++) {
+                            a.params[i] = params.get(i);
+                        }
+                    }
+                    if (r.hasNext()) {
+                        a.contentHash = r.readByteArray();
+                    }
+                    r.end();
+                    break;
+                }
+                default:
+                    r.beginList();
+                    a.number = r.readNullable(BigInteger.class);
+                    a.address = r.readNullable(Address.class);
+                    a.stepCosts = r.readNullable(Value.StepCosts.class);
+                    a.rewardFunds = r.readNullable(Value.RewardFunds.class);
+                    a.request = r.readNullable(Request.class);
+                    r.end();
+            }
+            r.end();
+            return a;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import score.Address;
+import score.ArrayDB;
+import score.Context;
+import score.DictDB;
+
+/*
+    Enumerable set of addresses, the index of each address in the list is kept for membership checks.
+    Removing an address fills its slot with the last address of the list.
+*/
+public class AddressSet {
+    private final ArrayDB<Address> list;
+    private final DictDB<Address, Integer> indexes;
+
+    public AddressSet(String listId, String indexId) {
+        this.list = Context.newArrayDB(listId, Address.class);
+        this.indexes = Context.newDictDB(indexId, Integer.class);
+    }
+
+    public boolean contains(Address address) {
+        return indexes.get(address) != null;
+    }
+
+    public boolean add(Address address) {
+        if (contains(address)) {
+            return false;
+        }
+        indexes.set(address, list.size());
+        list.add(address);
+        return true;
+    }
+
+    public boolean remove(Address address) {
+        var index = indexes.get(address);
+        if (index == null) {
+            return false;
+        }
+        var last = list.pop();
+        if (index < list.size()) {
+            list.set(index, last);
+            indexes.set(last, index);
+        }
+        indexes.set(address, null);
+        return true;
+    }
+
+    public int size() {
+        return list.size();
+    }
+
+    public Address get(int index) {
+        return list.get(index);
+    }
+
+    // builds the indexes of addresses added to the list before the indexes
+    public void indexAll() {
+        int size = list.size();
+        for (int i = 0; i < size; i++) {
+            indexes.set(list.get(i), i);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package foundation.icon.governance;
 
 import score.Address;
 import score.Context;
+import scorex.util.HashMap;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -189,9 +190,7 @@ class ChainScore {
         return (Map<String, Object>) Context.call(CHAIN_SCORE, "getPRepTerm");
     }
 
-    static BigInteger getExpireVotingHeight() {
-        var term = ChainScore.getPRepTerm();
-
+    static BigInteger getExpireVotingHeight(Map<String, Object> term) {
         /*
             currentTermEnd: endBlockHeight
             4-terms: termPeriod * 4
@@ -243,4 +242,76 @@ class ChainScore {
 
         return prepInfo;
     }
+
+    /*
+        Values read from the chain SCORE, kept for one external call which creates it.
+        Validation and apply of one proposal read the same values repeatedly, so the later reads are
+        served from here instead of an interscore call. Setters through it update the cached values.
+    */
+    static class Cache {
+        private BigInteger revision;
+        private BigInteger stepPrice;
+        private Map<String, Object> term;
+        private final Map<Address, PRepInfo> prepInfos = new HashMap<>();
+        private final Map<Address, Address> scoreOwners = new HashMap<>();
+
+        BigInteger getRevision() {
+            if (revision == null) {
+                revision = ChainScore.getRevision();
+            }
+            return revision;
+        }
+
+        void setRevision(BigInteger code) {
+            ChainScore.setRevision(code);
+            revision = code;
+        }
+
+        BigInteger getStepPrice() {
+            if (stepPrice == null) {
+                stepPrice = ChainScore.getStepPrice();
+            }
+            return stepPrice;
+        }
+
+        void setStepPrice(BigInteger price) {
+            ChainScore.setStepPrice(price);
+            stepPrice = price;
+        }
+
+        Map<String, Object> getPRepTerm() {
+            if (term == null) {
+                term = ChainScore.getPRepTerm();
+            }
+            return term;
+        }
+
+        BigInteger getExpireVotingHeight() {
+            return ChainScore.getExpireVotingHeight(getPRepTerm());
+        }
+
+        PRepInfo getPrepInfo(Address address) {
+            // inactive or unknown p-reps are cached as null too
+            if (prepInfos.containsKey(address)) {
+                return prepInfos.get(address);
+            }
+            var prepInfo = ChainScore.getPrepInfo(address);
+            prepInfos.put(address, prepInfo);
+            return prepInfo;
+        }
+
+        void disqualifyPRep(Address address) {
+            ChainScore.disqualifyPRep(address);
+            prepInfos.remove(address);
+        }
+
+        Address getScoreOwner(Address address) {
+            var owner = scoreOwners.get(address);
+            if (owner == null) {
+                owner = ChainScore.getScoreOwner(address);
+                scoreOwners.put(address, owner);
+            }
+            return owner;
+        }
+    }
 }
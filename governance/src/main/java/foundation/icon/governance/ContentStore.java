@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import score.Address;
+import score.ArrayDB;
+import score.BranchDB;
+import score.Context;
+import score.DictDB;
+
+import java.util.Map;
+
+/*
+    SCORE contents uploaded in chunks before a networkScoreUpdate proposal refers to them by SHA3-256 hash.
+    Each uploader appends chunks to its own upload of the hash, so an unfinished upload can not block others.
+    The first upload whose joined chunks match the hash is sealed, and a sealed content can not be changed.
+    Uploaders discard their unsealed uploads, including the ones left after another upload of the hash is sealed.
+    Open proposals referring to a content are counted, and the owner purges uploads once no open proposal refers to it.
+*/
+public class ContentStore {
+    public static final int CHUNK_MAX_SIZE = 128 * 1024;
+    public static final String HASH_ALGORITHM = "sha3-256";
+
+    // chunks and the total size of them by hash and uploader
+    private final BranchDB<byte[], BranchDB<Address, ArrayDB<byte[]>>> chunks =
+            Context.newBranchDB("content_chunks", byte[].class);
+    private final BranchDB<byte[], DictDB<Address, Integer>> sizes = Context.newBranchDB("content_sizes", Integer.class);
+    // uploader of the sealed content by hash
+    private final DictDB<byte[], Address> sealers = Context.newDictDB("content_sealers", Address.class);
+    // number of open proposals referring to the content by hash
+    private final DictDB<byte[], Integer> references = Context.newDictDB("content_references", Integer.class);
+
+    /**
+     * Appends the chunk at the index to the upload of the caller. Uploading the first chunk again restarts the upload.
+     */
+    public void upload(byte[] hash, int index, byte[] chunk) {
+        Context.require(hash.length == 32, "Invalid hash");
+        Context.require(chunk.length > 0 && chunk.length <= CHUNK_MAX_SIZE, "Invalid chunk size: " + chunk.length);
+        Context.require(!isSealed(hash), "Already sealed");
+        var caller = Context.getCaller();
+        if (index == 0) {
+            clear(hash, caller);
+        }
+        var list = chunks.at(hash).at(caller);
+        Context.require(index == list.size(), "Invalid chunk index: " + index);
+        list.add(chunk);
+        var uploaded = sizes.at(hash);
+        uploaded.set(caller, uploaded.getOrDefault(caller, 0) + chunk.length);
+    }
+
+    /**
+     * Seals the upload of the caller after checking the hash of the uploaded chunks.
+     */
+    public void seal(byte[] hash) {
+        Context.require(!isSealed(hash), "Already sealed");
+        var caller = Context.getCaller();
+        Context.require(sizes.at(hash).get(caller) != null, "No uploaded content");
+        var computed = Context.hash(HASH_ALGORITHM, load(hash, caller));
+        for (int i = 0; i < hash.length; i++) {
+            Context.require(hash[i] == computed[i], "Hash mismatch");
+        }
+        sealers.set(hash, caller);
+    }
+
+    /**
+     * Discards the upload of the caller, which is not sealed.
+     */
+    public void discard(byte[] hash) {
+        var caller = Context.getCaller();
+        Context.require(sizes.at(hash).get(caller) != null, "No uploaded content");
+        Context.require(!caller.equals(sealers.get(hash)), "Already sealed");
+        clear(hash, caller);
+        sizes.at(hash).set(caller, null);
+    }
+
+    /**
+     * Removes the upload of the uploader, or the sealed content if uploader is null.
+     * The sealed content can be removed only if no open proposal refers to it.
+     */
+    public void purge(byte[] hash, Address uploader) {
+        var sealer = sealers.get(hash);
+        if (uploader == null) {
+            uploader = sealer;
+        }
+        Context.require(uploader != null && sizes.at(hash).get(uploader) != null, "No uploaded content");
+        if (uploader.equals(sealer)) {
+            Context.require(references.getOrDefault(hash, 0) == 0, "Content in use");
+            sealers.set(hash, null);
+        }
+        clear(hash, uploader);
+        sizes.at(hash).set(uploader, null);
+    }
+
+    // counts a proposal referring to the sealed content on registration
+    public void retain(byte[] hash) {
+        references.set(hash, references.getOrDefault(hash, 0) + 1);
+    }
+
+    // uncounts a proposal referring to the content when it's closed
+    public void release(byte[] hash) {
+        var count = references.getOrDefault(hash, 0) - 1;
+        references.set(hash, count > 0 ? count : null);
+    }
+
+    private void clear(byte[] hash, Address uploader) {
+        var list = chunks.at(hash).at(uploader);
+        while (list.size() > 0) {
+            list.pop();
+        }
+        sizes.at(hash).set(uploader, 0);
+    }
+
+    public boolean isSealed(byte[] hash) {
+        return sealers.get(hash) != null;
+    }
+
+    // joins the chunks of the sealed content into a byte array
+    public byte[] load(byte[] hash) {
+        return load(hash, sealers.get(hash));
+    }
+
+    private byte[] load(byte[] hash, Address uploader) {
+        var list = chunks.at(hash).at(uploader);
+        var content = new byte[sizes.at(hash).getOrDefault(uploader, 0)];
+        int offset = 0;
+        for (int i = 0; i < list.size(); i++) {
+            var chunk = list.get(i);
+            System.arraycopy(chunk, 0, content, offset, chunk.length);
+            offset += chunk.length;
+        }
+        return content;
+    }
+
+    // returns the upload of the uploader, or the sealed one if uploader is null
+    public Map<String, Object> getInfo(byte[] hash, Address uploader) {
+        var sealer = sealers.get(hash);
+        if (uploader == null) {
+            uploader = sealer;
+        }
+        var size = uploader == null ? null : sizes.at(hash).get(uploader);
+        Context.require(size != null, "No uploaded content");
+        return Map.of(
+                "uploader", uploader,
+                "chunks", chunks.at(hash).at(uploader).size(),
+                "size", size,
+                "sealed", uploader.equals(sealer),
+                "references", references.getOrDefault(hash, 0)
+        );
+    }
+}
@@ -16,12 +16,40 @@
 
 package foundation.icon.governance;
 
+import com.eclipsesource.json.JsonValue;
 import score.Address;
 
+import java.math.BigDecimal;
 import java.math.BigInteger;
 
 public class Converter {
     private static final char[] HEX_ARRAY = "0123456789abcdef".toCharArray();
+    // value of each hex digit indexed by the char, -1 for the other chars
+    private static final byte[] HEX_DIGITS = new byte[128];
+    // number of hex digits which fit in a long without the sign bit
+    private static final int LONG_HEX_DIGITS = 15;
+
+    static {
+        for (int i = 0; i < HEX_DIGITS.length; i++) {
+            HEX_DIGITS[i] = -1;
+        }
+        for (int i = 0; i < 10; i++) {
+            HEX_DIGITS['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_DIGITS['a' + i] = (byte) (10 + i);
+            HEX_DIGITS['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private static int hexDigit(String value, int index) {
+        char c = value.charAt(index);
+        int d = c < HEX_DIGITS.length ? HEX_DIGITS[c] : -1;
+        if (d < 0) {
+            throw new IllegalArgumentException("Invalid hex value");
+        }
+        return d;
+    }
 
     public static String bytesToHex(byte[] bytes) {
         if (bytes == null) {
@@ -37,29 +65,62 @@ public class Converter {
     }
 
     public static byte[] hexToBytes(String value) {
-        if (value != null && value.startsWith("0x") && (value.length() % 2 == 0)) {
-            String hex = value.substring(2);
-            int len = hex.length() / 2;
-            byte[] bytes = new byte[len];
-            for (int i = 0; i < len; i++) {
-                int j = i * 2;
-                bytes[i] = (byte) Integer.parseInt(hex.substring(j, j + 2), 16);
-            }
-            return bytes;
-        } else {
+        if (value == null || !value.startsWith("0x") || value.length() % 2 != 0) {
             throw new IllegalArgumentException("Invalid hex value");
         }
+        byte[] bytes = new byte[(value.length() - 2) / 2];
+        for (int i = 0, j = 2; i < bytes.length; i++, j += 2) {
+            bytes[i] = (byte) (hexDigit(value, j) << 4 | hexDigit(value, j + 1));
+        }
+        return bytes;
     }
 
     public static BigInteger toInteger(String value) {
         if (value.startsWith("0x")) {
-            return new BigInteger(value.substring(2), 16);
+            return hexToInteger(value, 2, false);
         } else if (value.startsWith(("-0x"))){
-            return new BigInteger("-" + value.substring(3), 16);
+            return hexToInteger(value, 3, true);
         }
         return new BigInteger(value);
     }
 
+    // converts the hex digits from the offset without building a substring
+    private static BigInteger hexToInteger(String value, int offset, boolean negative) {
+        int digits = value.length() - offset;
+        if (digits == 0) {
+            throw new IllegalArgumentException("Invalid hex value");
+        }
+        BigInteger v;
+        if (digits <= LONG_HEX_DIGITS) {
+            long l = 0;
+            for (int i = offset; i < value.length(); i++) {
+                l = l << 4 | hexDigit(value, i);
+            }
+            v = BigInteger.valueOf(l);
+        } else {
+            // big-endian magnitude, the first byte has a digit only for odd number of digits
+            byte[] magnitude = new byte[(digits + 1) / 2];
+            int i = offset;
+            int j = 0;
+            if (digits % 2 != 0) {
+                magnitude[j++] = (byte) hexDigit(value, i++);
+            }
+            for (; j < magnitude.length; j++, i += 2) {
+                magnitude[j] = (byte) (hexDigit(value, i) << 4 | hexDigit(value, i + 1));
+            }
+            v = new BigInteger(1, magnitude);
+        }
+        return negative ? v.negate() : v;
+    }
+
+    public static BigInteger toInteger(JsonValue value) {
+        if (value == null) {
+            return BigInteger.ZERO;
+        }
+        // parse the number literal directly, large amounts can't be represented as double
+        return new BigDecimal(value.toString()).toBigInteger();
+    }
+
     public static Address toAddress(String value) {
         if (value == null || value.isEmpty()) {
             return null;
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import score.Address;
+import score.Context;
+import score.ObjectReader;
+import score.ObjectWriter;
+import scorex.util.ArrayList;
+
+/*
+    Main preps taken on registration and shared by the proposals registered while the main preps are the same.
+    It's identified by the hash of the addresses, so a change of the main preps in a term takes a new one.
+    The power of the electorate may change without the main preps changing, so it's kept in each proposal.
+*/
+public class Electorate {
+    private final Address[] preps;
+
+    public Electorate(Address[] preps) {
+        this.preps = preps;
+    }
+
+    public Address[] getPreps() {
+        return preps;
+    }
+
+    public byte[] getId() {
+        int size = 0;
+        for (Address prep : preps) {
+            size += prep.toByteArray().length;
+        }
+        var data = new byte[size];
+        int offset = 0;
+        for (Address prep : preps) {
+            var b = prep.toByteArray();
+            System.arraycopy(b, 0, data, offset, b.length);
+            offset += b.length;
+        }
+        return Context.hash("sha3-256", data);
+    }
+
+    public static void writeObject(ObjectWriter w, Electorate e) {
+        w.beginList(e.preps.length);
+        for (Address prep : e.preps) {
+            w.write(prep);
+        }
+        w.end();
+    }
+
+    public static Electorate readObject(ObjectReader r) {
+        r.beginList();
+        var list = new ArrayList<Address>();
+        while (r.hasNext()) {
+            list.add(r.readAddress());
+        }
+        r.end();
+        var preps = new Address[list.size()];
+        for (int i = 0; i < preps.length; i++) {
+            preps[i] = list.get(i);
+        }
+        return new Electorate(preps);
+    }
+}
@@ -22,14 +22,17 @@ import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import score.Address;
 import score.ArrayDB;
+import score.BranchDB;
 import score.Context;
 import score.DictDB;
 import score.ObjectReader;
 import score.ObjectWriter;
+import score.VarDB;
 import score.annotation.EventLog;
 import score.annotation.External;
 import score.annotation.Optional;
 import score.annotation.Payable;
+import scorex.util.ArrayList;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -40,18 +43,42 @@ public class Governance {
     private static final BigInteger ONE_HUNDRED = BigInteger.valueOf(100);
     private static final BigInteger PROPOSAL_REGISTRATION_FEE = ONE_HUNDRED.multiply(EXA);
     private static final Address ADDRESS = Address.fromString("cx0000000000000000000000000000000000000001");
+    private static final int AUDIT_BATCH_MAX_SIZE = 50;
+    private static final int TIMER_BATCH_SIZE = 20;
+    private static final int BLOCKED_SCORES_DEFAULT_SIZE = 20;
+    private static final int BLOCKED_SCORES_MAX_SIZE = 100;
     private static final NetworkProposal networkProposal = new NetworkProposal();
-
-    private final ArrayDB<Address> auditors = Context.newArrayDB("auditor_list", Address.class);
+    private static final ContentStore contentStore = new ContentStore();
+
+    // index of each auditor in auditor_list, built from the list on the update which introduces it
+    private final AddressSet auditors = new AddressSet("auditor_list", "auditor_index");
+    private final VarDB<Boolean> auditorIndexed = Context.newVarDB("auditor_indexed", Boolean.class);
+    // mirror of the blocked SCORE list of chain SCORE, it's seeded from chain SCORE once
+    private final AddressSet blockedScores = new AddressSet("blocked_score_list", "blocked_score_index");
+    private final VarDB<Boolean> blockedScoresSeeded = Context.newVarDB("blocked_scores_seeded", Boolean.class);
+    // legacy timer buckets, moved into timerBuckets when they are accessed
     private final DictDB<BigInteger, TimerInfo> timerInfo = Context.newDictDB("timerInfo", TimerInfo.class);
+    // proposal ids by timer height, and the index of each id in its bucket
+    private final BranchDB<BigInteger, ArrayDB<byte[]>> timerBuckets = Context.newBranchDB("timer_buckets", byte[].class);
+    private final DictDB<byte[], Integer> timerSlots = Context.newDictDB("timer_slots", Integer.class);
+    // height of the bucket left to the next block when the due proposals exceed a batch, and the index to resume from
+    private final VarDB<BigInteger> timerDueHeight = Context.newVarDB("timer_due_height", BigInteger.class);
+    private final VarDB<Integer> timerDueIndex = Context.newVarDB("timer_due_index", Integer.class);
+    // height of the timer armed to resume onTimer
+    private final VarDB<BigInteger> timerResumeHeight = Context.newVarDB("timer_resume_height", BigInteger.class);
+
+    // called on deployment and on every update
+    public Governance() {
+        indexAuditors();
+    }
 
-    private void setRevision(BigInteger code) {
-        ChainScore.setRevision(code);
+    private void setRevision(BigInteger code, ChainScore.Cache cache) {
+        cache.setRevision(code);
         RevisionChanged(code);
     }
 
-    private void setStepPrice(BigInteger price) {
-        ChainScore.setStepPrice(price);
+    private void setStepPrice(BigInteger price, ChainScore.Cache cache) {
+        cache.setStepPrice(price);
         StepPriceChanged(price);
     }
 
@@ -71,26 +98,41 @@ public class Governance {
     }
 
     private void blockScore(Address address) {
+        loadBlockedScores();
         ChainScore.blockScore(address);
+        blockedScores.add(address);
         MaliciousScore(address, 0);
     }
 
     private void unblockScore(Address address) {
+        loadBlockedScores();
         ChainScore.unblockScore(address);
+        blockedScores.remove(address);
         MaliciousScore(address, 1);
     }
 
-    private void disqualifyPRep(Address address) {
-        if (_disqualifyPRep(address)) {
+    private boolean loadBlockedScores() {
+        if (blockedScoresSeeded.getOrDefault(false)) {
+            return false;
+        }
+        for (Address address : ChainScore.getBlockedScores()) {
+            blockedScores.add(address);
+        }
+        blockedScoresSeeded.set(true);
+        return true;
+    }
+
+    private void disqualifyPRep(Address address, ChainScore.Cache cache) {
+        if (_disqualifyPRep(address, cache)) {
             PRepDisqualified(address, true, "");
         } else {
             PRepDisqualified(address, false, "Error raised on chain SCORE");
         }
     }
 
-    private boolean _disqualifyPRep(Address address) {
+    private boolean _disqualifyPRep(Address address, ChainScore.Cache cache) {
         try {
-            ChainScore.disqualifyPRep(address);
+            cache.disqualifyPRep(address);
             return true;
         } catch (Exception e) {
             return false;
@@ -106,14 +148,15 @@ public class Governance {
     }
 
     private boolean isAuditor(Address address) {
-        var auditorSize = auditors.size();
-        for (int i = 0; i < auditorSize; i++) {
-            var auditor = auditors.get(i);
-            if (address.equals(auditor)) {
-                return true;
-            }
+        return auditors.contains(address);
+    }
+
+    private void indexAuditors() {
+        if (auditorIndexed.getOrDefault(false)) {
+            return;
         }
-        return false;
+        auditors.indexAll();
+        auditorIndexed.set(true);
     }
 
     @External(readonly = true)
@@ -162,13 +205,105 @@ public class Governance {
         Rejected(txHash, reason);
     }
 
+    /**
+     * Upload a chunk of SCORE content to be referred by contentHash of networkScoreUpdate proposal.
+     * Each main prep uploads its own chunks, and uploading the first chunk again restarts the upload of the caller.
+     *
+     * @param hash SHA3-256 hash of the whole content
+     * @param index index of the chunk, from 0
+     * @param chunk part of the content, at most 128 KiB
+     */
+    @External
+    public void uploadContent(byte[] hash, int index, byte[] chunk) {
+        var prep = ChainScore.getPrepInfo(Context.getCaller());
+        Context.require(prep != null && prep.getGrade().compareTo(PRepInfo.GRADE_MAIN) == 0, "No permission - only for main prep");
+        contentStore.upload(hash, index, chunk);
+    }
+
+    /**
+     * Seal the content uploaded by the caller after checking its hash, so proposals can refer to it.
+     *
+     * @param hash SHA3-256 hash of the whole content
+     */
+    @External
+    public void sealContent(byte[] hash) {
+        contentStore.seal(hash);
+        ContentSealed(hash);
+    }
+
+    /**
+     * Discard the upload of the caller which is not sealed.
+     *
+     * @param hash SHA3-256 hash of the whole content
+     */
+    @External
+    public void discardContent(byte[] hash) {
+        contentStore.discard(hash);
+    }
+
+    /**
+     * Purge an upload of content, or the sealed content which no open proposal refers to.
+     * Only the owner can call this.
+     *
+     * @param hash SHA3-256 hash of the whole content
+     * @param uploader uploader of the upload to purge. Default is the uploader of the sealed one (optional)
+     */
+    @External
+    public void purgeContent(byte[] hash, @Optional Address uploader) {
+        var caller = Context.getCaller();
+        Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
+        Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
+        contentStore.purge(hash, uploader);
+    }
+
+    @External(readonly = true)
+    public Map<String, Object> getContentInfo(byte[] hash, @Optional Address uploader) {
+        return contentStore.getInfo(hash, uploader);
+    }
+
+    @External
+    public void acceptScores(byte[][] txHashes) {
+        var caller = Context.getCaller();
+        Context.require(isAuditor(caller), "Invalid sender: no permission");
+        Context.require(txHashes.length > 0 && txHashes.length <= AUDIT_BATCH_MAX_SIZE,
+                "Invalid txHashes size: " + txHashes.length);
+        for (byte[] txHash : txHashes) {
+            ChainScore.acceptScore(txHash);
+            Accepted(txHash);
+        }
+    }
+
+    @External
+    public void rejectScores(byte[][] txHashes, String[] reasons) {
+        var caller = Context.getCaller();
+        Context.require(isAuditor(caller), "Invalid sender: no permission");
+        Context.require(txHashes.length > 0 && txHashes.length <= AUDIT_BATCH_MAX_SIZE,
+                "Invalid txHashes size: " + txHashes.length);
+        Context.require(reasons.length == txHashes.length, "Invalid reasons size: " + reasons.length);
+        for (int i = 0; i < txHashes.length; i++) {
+            ChainScore.rejectScore(txHashes[i]);
+            Rejected(txHashes[i], reasons[i]);
+        }
+    }
+
+    /**
+     * Copy the blocked SCORE list of chain SCORE, so isInScoreBlackList and getBlockedScores read the copy.
+     * It's also done on the first proposal blocking or unblocking a SCORE.
+     */
+    @External
+    public void seedBlockedScores() {
+        var caller = Context.getCaller();
+        Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
+        Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
+        Context.require(loadBlockedScores(), "Already seeded");
+    }
+
     @External
     public void addAuditor(Address address) {
         var caller = Context.getCaller();
         Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
         Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
-        Context.require(!isAuditor(address), "Invalid address: already auditor");
-        auditors.add(address);
+        Context.require(auditors.add(address), "Invalid address: already auditor");
     }
 
     @External
@@ -177,19 +312,70 @@ public class Governance {
         Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
         Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
 
-        var top = auditors.pop();
+        Context.require(auditors.remove(address), "Invalid address: not auditor");
+    }
+
+    @External(readonly = true)
+    public List<Address> getAuditors() {
         var auditorSize = auditors.size();
+        var list = new Address[auditorSize];
         for (int i = 0; i < auditorSize; i++) {
-            var auditor = auditors.get(i);
-            if (address.equals(auditor)) {
-                auditors.set(i, top);
-                break;
-            }
+            list[i] = auditors.get(i);
         }
+        return List.of(list);
+    }
+
+    /**
+     * Convert legacy proposals written in Python version into the current proposal format.
+     * It can be called repeatedly until all legacy proposals are converted.
+     *
+     * @param size maximum number of legacy proposals to convert in this transaction
+     */
+    @External
+    public void migrateLegacyProposals(int size) {
+        var caller = Context.getCaller();
+        Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
+        Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
+        var migrated = networkProposal.migrateLegacyProposals(size);
+        LegacyProposalsMigrated(BigInteger.valueOf(migrated));
+    }
+
+    /**
+     * Add proposals registered before the status, type and proposer indexes to the indexes, settling the status of
+     * those whose voting period was over before the timer stored the status.
+     * It can be called repeatedly until all those proposals are indexed.
+     *
+     * @param size maximum number of proposals to index in this transaction
+     */
+    @External
+    public void indexLegacyProposals(int size) {
+        var caller = Context.getCaller();
+        Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
+        Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
+        var indexed = networkProposal.indexLegacyProposals(size);
+        LegacyProposalsIndexed(BigInteger.valueOf(indexed));
+    }
+
+    /**
+     * Get counters of proposals and votes
+     *
+     * @return counts by status, type and action, votes and turnout denominators, and proposals applied in this term
+     */
+    @External(readonly = true)
+    public Map<String, Object> getGovernanceStats() {
+        return networkProposal.getStats();
+    }
+
+    @External(readonly = true)
+    public Map<String, Object> getLegacyMigrationStatus() {
+        return networkProposal.getLegacyMigrationStatus();
     }
 
     @External(readonly = true)
     public boolean isInScoreBlackList(Address address) {
+        if (blockedScoresSeeded.getOrDefault(false)) {
+            return blockedScores.contains(address);
+        }
         var addresses = ChainScore.getBlockedScores();
         for (Address addr : addresses) {
             if (address.equals(addr)) return true;
@@ -197,40 +383,152 @@ public class Governance {
         return false;
     }
 
+    /**
+     * Get a part of blocked SCOREs
+     *
+     * @param start starting index of blocked SCOREs. Default is 0 (optional)
+     * @param size size of blocked SCOREs. Default is 20 and maximum is 100 (optional)
+     * @return list of blocked SCOREs in dict, with the start for the next query if there are more SCOREs
+     */
+    @External(readonly = true)
+    public Map<String, Object> getBlockedScores(@Optional BigInteger start, @Optional BigInteger size) {
+        int _start = start.intValue();
+        int _size = IS_ZERO(size) ? BLOCKED_SCORES_DEFAULT_SIZE : size.intValue();
+        Context.require(_start >= 0, "Invalid start parameter: " + _start);
+        Context.require(_size > 0 && _size <= BLOCKED_SCORES_MAX_SIZE, "Invalid size parameter: " + _size);
+
+        Address[] scores;
+        int total;
+        if (blockedScoresSeeded.getOrDefault(false)) {
+            total = blockedScores.size();
+            scores = new Address[Math.max(Math.min(_start + _size, total) - _start, 0)];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = blockedScores.get(_start + i);
+            }
+        } else {
+            var addresses = ChainScore.getBlockedScores();
+            total = addresses.size();
+            scores = new Address[Math.max(Math.min(_start + _size, total) - _start, 0)];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = addresses.get(_start + i);
+            }
+        }
+        if (_start + scores.length < total) {
+            return Map.of("scores", List.of(scores), "next", _start + scores.length);
+        }
+        return Map.of("scores", List.of(scores));
+    }
+
     /**
      * Get a proposal info as dict
      *
      * @param id transaction hash to generate when registering proposal
+     * @param omitVotes whether to return the count and amount of votes only, without voter lists (optional)
      * @return proposal information in dict
      */
     @External(readonly = true)
-    public Map<String, Object> getProposal(byte[] id) {
+    public Map<String, Object> getProposal(byte[] id, @Optional boolean omitVotes) {
         Proposal p = networkProposal.getProposal(id);
         if (p == null) {
             return null;
         } else if (p.type == Proposal.NETWORK_PROPOSAL) {
             p.value = new Value(Proposal.NETWORK_PROPOSAL, networkProposal.getProposalValue(id));
         }
+        if (omitVotes) {
+            return p.toMap(BigInteger.valueOf(Context.getBlockHeight()), true, false);
+        }
+        networkProposal.loadVoteInfo(p);
         return p.toMap(BigInteger.valueOf(Context.getBlockHeight()));
     }
 
     /**
-     * Get a list of proposals filtered by type, status, start and size
+     * Get a part of voters of a proposal
+     *
+     * @param id transaction hash to generate when registering proposal
+     * @param kind kind of voters, one of agree, disagree and noVote
+     * @param start starting index of voters. Default is 0 (optional)
+     * @param size size of voters. Default is 20 and maximum is 100 (optional)
+     * @return count and amount of votes, and voter list in dict, with the start for the next query if there are more voters
+     */
+    @External(readonly = true)
+    public Map<String, Object> getProposalVotes(byte[] id, String kind, @Optional BigInteger start,
+                                                @Optional BigInteger size) {
+        int _size = IS_ZERO(size) ? NetworkProposal.GET_VOTES_DEFAULT_SIZE : size.intValue();
+        return networkProposal.getProposalVotes(id, kind, start.intValue(), _size);
+    }
+
+    /**
+     * Get a list of proposals filtered by type, status, start and size.
+     * A proposal whose voting period is over matches the disapproved or expired status only after the timer
+     * processes it, and it matches neither that nor the previous status until then.
      *
      * @param type type of network proposal to filter (optional)
      * @param status status of network proposal to filter (optional)
      * @param start starting index of network proposal to filter. Default is 0, which means the latest (optional)
-     * @param size size of network proposal to filter. Default and maximum is 10 (optional)
-     * @return proposal list in dict
+     * @param size size of network proposal to filter. Default is 10 and maximum is getProposalsMaxSize (optional)
+     * @param cursor cursor returned as next by the previous query. start is ignored if it is given (optional)
+     * @return proposal list in dict, with the cursor for the next query if there are more proposals
      */
     @External(readonly = true)
     public Map<String, Object> getProposals(@Optional BigInteger type, @Optional BigInteger status,
-                                            @Optional BigInteger start, @Optional BigInteger size) {
+                                            @Optional BigInteger start, @Optional BigInteger size,
+                                            @Optional BigInteger cursor) {
         int _type = IS_ZERO(type) ? NetworkProposal.GET_PROPOSALS_FILTER_ALL : type.intValue();
         int _status = IS_ZERO(status) ? NetworkProposal.GET_PROPOSALS_FILTER_ALL : status.intValue();
         int _start = start.intValue();
-        int _size = IS_ZERO(size) ? NetworkProposal.GET_PROPOSALS_MAX_SIZE : size.intValue();
-        return Map.of("proposals", networkProposal.getProposals(_type, _status, _start, _size));
+        int _size = IS_ZERO(size) ? NetworkProposal.GET_PROPOSALS_DEFAULT_SIZE : size.intValue();
+        return networkProposal.getProposals(_type, _status, _start, cursor, _size);
+    }
+
+    /**
+     * Get proposals of the given ids in one query
+     *
+     * @param ids transaction hashes to generate when registering proposals. Maximum size is getProposalsMaxSize
+     * @param summary whether to return summarized information instead of full information (optional)
+     * @return proposal list in dict, in the order of ids
+     */
+    @External(readonly = true)
+    public Map<String, Object> getProposalsByIds(byte[][] ids, @Optional boolean summary) {
+        return networkProposal.getProposalsByIds(ids, summary);
+    }
+
+    /**
+     * Get proposals registered by the proposer from the latest one
+     *
+     * @param proposer address of the proposer
+     * @param start starting index of proposals of the proposer. Default is 0, which means the latest (optional)
+     * @param size size of proposals. Default is 10 and maximum is getProposalsMaxSize (optional)
+     * @return proposal list in dict, with the start for the next query if there are more proposals
+     */
+    @External(readonly = true)
+    public Map<String, Object> getProposalsByProposer(Address proposer, @Optional BigInteger start,
+                                                      @Optional BigInteger size) {
+        int _size = IS_ZERO(size) ? NetworkProposal.GET_PROPOSALS_DEFAULT_SIZE : size.intValue();
+        return networkProposal.getProposalsByProposer(proposer, start.intValue(), _size);
+    }
+
+    /**
+     * Get proposals open for voting which the prep has not voted for yet
+     *
+     * @param address address of the prep
+     * @return list of id, status and end block height of the proposals in dict
+     */
+    @External(readonly = true)
+    public Map<String, Object> getPendingVotes(Address address) {
+        return networkProposal.getPendingVotes(address);
+    }
+
+    @External(readonly = true)
+    public BigInteger getProposalsMaxSize() {
+        return BigInteger.valueOf(networkProposal.getProposalsMaxSize());
+    }
+
+    @External
+    public void setProposalsMaxSize(int size) {
+        var caller = Context.getCaller();
+        Context.require(!caller.isContract(), "Invalid EOA Address: " + caller );
+        Context.require(caller.equals(Context.getOwner()), "Invalid sender: not owner");
+        networkProposal.setProposalsMaxSize(size);
     }
 
     private boolean IS_ZERO(BigInteger value) {
@@ -247,25 +545,33 @@ public class Governance {
         Context.require(PROPOSAL_REGISTRATION_FEE.compareTo(Context.getValue()) == 0, "100 ICX required to register proposal");
         ChainScore.burn(PROPOSAL_REGISTRATION_FEE);
         Address proposer = Context.getCaller();
-        var prep = ChainScore.getPrepInfo(proposer);
+        var cache = new ChainScore.Cache();
+        var prep = cache.getPrepInfo(proposer);
         Context.require(prep != null && prep.getGrade().compareTo(PRepInfo.GRADE_MAIN) == 0, "No permission - only for main prep");
 
         String stringValue = new String(value);
         JsonValue json = Json.parse(stringValue);
         JsonArray values = json.asArray();
-        validateProposals(values);
+        var plan = validateProposals(values, cache);
         Value v = new Value(Proposal.NETWORK_PROPOSAL, value);
 
-        BigInteger expireVotingHeight = ChainScore.getExpireVotingHeight();
+        BigInteger expireVotingHeight = cache.getExpireVotingHeight();
 
         networkProposal.registerProposal(
                 title,
                 description,
                 v,
+                plan,
+                prep.getName(),
                 expireVotingHeight
         );
 
-        setTimerInfo(BigInteger.ONE.add(expireVotingHeight));
+        for (ActionPlan.Action action : plan.getActions()) {
+            if (action.contentHash != null) {
+                contentStore.retain(action.contentHash);
+            }
+        }
+        addToTimerBucket(BigInteger.ONE.add(expireVotingHeight));
         NetworkProposalRegistered(title, description, Proposal.NETWORK_PROPOSAL, value, proposer);
     }
 
@@ -274,7 +580,7 @@ public class Governance {
         Address sender = Context.getCaller();
         var prep = ChainScore.getPrepInfo(sender);
 
-        Proposal p = networkProposal.getProposal(id);
+        Proposal p = networkProposal.getProposalHeader(id);
         Context.require(p != null, "no registered proposal");
         Context.require(vote == VoteInfo.AGREE_VOTE || vote == VoteInfo.DISAGREE_VOTE, "Invalid vote value : " + vote);
 
@@ -282,8 +588,9 @@ public class Governance {
         Context.require(!p.isExpired(blockHeight), "This proposal has already expired");
         Context.require(p.getStatus(blockHeight) != NetworkProposal.CANCELED_STATUS, "This proposal has canceled");
 
-        Context.require(!p.agreed(sender) && !p.disagreed(sender), "Already voted");
-        Context.require(p.isInNoVote(sender), "No permission - only for prep were main prep when network registered");
+        var voterStatus = networkProposal.getVoterStatus(p, sender);
+        Context.require(voterStatus == null || voterStatus == VoteInfo.PENDING_VOTE, "Already voted");
+        Context.require(voterStatus != null, "No permission - only for prep were main prep when network registered");
 
         var event = networkProposal.voteProposal(p, vote, prep);
         NetworkProposalVoted(id, vote, sender);
@@ -298,20 +605,22 @@ public class Governance {
     @External
     public void applyProposal(byte[] id) {
         Address sender = Context.getCaller();
-        Proposal p = networkProposal.getProposal(id);
-        var prep = ChainScore.getPrepInfo(sender);
+        Proposal p = networkProposal.getProposalHeader(id);
+        var cache = new ChainScore.Cache();
+        var prep = cache.getPrepInfo(sender);
         BigInteger blockHeight = BigInteger.valueOf(Context.getBlockHeight());
-        Context.require(p.agreed(sender) || p.disagreed(sender), "No permission - only for voted preps");
+        var voterStatus = networkProposal.getVoterStatus(p, sender);
+        Context.require(voterStatus != null && voterStatus != VoteInfo.PENDING_VOTE, "No permission - only for voted preps");
         Context.require(p.getStatus(blockHeight) == NetworkProposal.APPROVED_STATUS, "Only approved proposal can be applied");
         NetworkProposalApplied(id);
-        applyProposal(p, prep);
+        applyProposal(p, prep, cache);
     }
 
     @External
     public void cancelProposal(byte[] id) {
         Address sender = Context.getCaller();
 
-        Proposal p = networkProposal.getProposal(id);
+        Proposal p = networkProposal.getProposalHeader(id);
 
         var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
         Context.require(p != null, "no registered proposal");
@@ -322,15 +631,20 @@ public class Governance {
         Context.require(sender.equals(p.proposer), "No permission - only for proposer");
 
         networkProposal.setStatus(p, NetworkProposal.CANCELED_STATUS);
+        closeProposal(id);
         var timerHeight = BigInteger.ONE.add(p.expireBlockHeight);
-        var ti = timerInfo.getOrDefault(timerHeight, null);
-        if (ti != null) {
-            if (ti.proposalIds.ids.length == 1) {
-                timerInfo.set(timerHeight, null);
+        var bucket = getTimerBucket(timerHeight);
+        var slot = timerSlots.get(id);
+        if (slot != null) {
+            var last = bucket.pop();
+            if (slot < bucket.size()) {
+                bucket.set(slot, last);
+                timerSlots.set(last, slot);
+            }
+            timerSlots.set(id, null);
+            // the timer may be armed to resume onTimer as well
+            if (bucket.size() == 0 && !timerHeight.equals(timerResumeHeight.get())) {
                 ChainScore.removeTimer(timerHeight);
-            } else {
-                ti.removeProposalId(id);
-                timerInfo.set(timerHeight, ti);
             }
         }
         NetworkProposalCanceled(id);
@@ -341,68 +655,110 @@ public class Governance {
         Address sender = Context.getCaller();
         Context.require(sender.equals(ChainScore.CHAIN_SCORE), "only chain SCORE can call onTimer");
         var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
-        var ti = timerInfo.getOrDefault(blockHeight, null);
-        for (byte[] id : ti.proposalIds.ids) {
-            var proposal = networkProposal.getProposal(id);
-            var novoters = proposal.getNonVoters();
-            ChainScore.penalizeNonvoters(List.of(novoters));
-            int status = proposal.getStatus(blockHeight);
-            if (status == NetworkProposal.EXPIRED_STATUS) {
-                if (proposal.apply != null) {
-                    networkProposal.setStatus(proposal, NetworkProposal.APPLIED_STATUS);
-                } else {
-                    NetworkProposalExpired(proposal.id);
-                }
-            } else if (status == NetworkProposal.DISAPPROVED_STATUS) {
-                NetworkProposalDisapproved(proposal.id);
+        // buckets are processed in the order of height from the one left by the previous call, if any
+        var height = timerDueHeight.getOrDefault(blockHeight);
+        int index = timerDueIndex.getOrDefault(0);
+        int budget = TIMER_BATCH_SIZE;
+        // non-voters of all proposals are penalized in a call, a prep is listed once for each proposal it missed
+        var novoters = new ArrayList<Address>();
+        while (height.compareTo(blockHeight) <= 0) {
+            // expired proposals can't be canceled, so the bucket is not reordered while it's processed
+            var bucket = getTimerBucket(height);
+            int size = bucket.size();
+            for (; index < size && budget > 0; index++, budget--) {
+                var id = bucket.get(index);
+                timerSlots.set(id, null);
+                processExpiredProposal(id, blockHeight, novoters);
+            }
+            if (index < size) {
+                break;
             }
+            for (int i = 0; i < size; i++) {
+                bucket.pop();
+            }
+            height = height.add(BigInteger.ONE);
+            index = 0;
+        }
+        if (novoters.size() > 0) {
+            ChainScore.penalizeNonvoters(List.of(novoters.toArray(new Address[novoters.size()])));
+        }
+        if (height.compareTo(blockHeight) <= 0) {
+            timerDueHeight.set(height);
+            timerDueIndex.set(index);
+            var next = blockHeight.add(BigInteger.ONE);
+            if (getTimerBucket(next).size() == 0) {
+                ChainScore.addTimer(next);
+            }
+            timerResumeHeight.set(next);
+        } else {
+            timerDueHeight.set(null);
+            timerDueIndex.set(null);
+            timerResumeHeight.set(null);
         }
-        timerInfo.set(blockHeight, null);
     }
 
-    private void applyProposal(Proposal proposal, PRepInfo pRepInfo) {
+    // releases the contents which the proposal refers to, once it's closed
+    private void closeProposal(byte[] id) {
+        if (!networkProposal.closeProposal(id)) {
+            return;
+        }
+        var plan = networkProposal.getStoredActionPlan(id);
+        if (plan == null) {
+            return;
+        }
+        for (ActionPlan.Action action : plan.getActions()) {
+            if (action.contentHash != null) {
+                contentStore.release(action.contentHash);
+            }
+        }
+    }
+
+    private void processExpiredProposal(byte[] id, BigInteger blockHeight, ArrayList<Address> novoters) {
+        var proposal = networkProposal.getProposalHeader(id);
+        for (Address prep : networkProposal.getNonVoters(proposal)) {
+            novoters.add(prep);
+        }
+        closeProposal(id);
+        int status = proposal.getStatus(blockHeight);
+        networkProposal.settleStatus(proposal, blockHeight);
+        if (status == NetworkProposal.EXPIRED_STATUS && proposal.apply == null) {
+            NetworkProposalExpired(proposal.id);
+        } else if (status == NetworkProposal.DISAPPROVED_STATUS) {
+            NetworkProposalDisapproved(proposal.id);
+        }
+    }
+
+    private void applyProposal(Proposal proposal, PRepInfo pRepInfo, ChainScore.Cache cache) {
         proposal.apply = new ApplyInfo(
                 Context.getTransactionHash(), pRepInfo.getAddress(), pRepInfo.getName(), BigInteger.valueOf(Context.getTransactionTimestamp()));
         networkProposal.setStatus(proposal, NetworkProposal.APPLIED_STATUS);
-        var data = networkProposal.getProposalValue(proposal.id);
-        String stringValue = new String(data);
-        JsonValue json = Json.parse(stringValue);
-        JsonArray values = json.asArray();
-        int length = values.size();
-        for (int i = 0; i < length; i++) {
-            var object = values.get(i).asObject();
-            var name = object.getString("name", "");
-            var valueObject = object.get("value").asObject();
-            switch (name) {
+        networkProposal.countApplied(cache);
+        for (ActionPlan.Action action : networkProposal.getActionPlan(proposal.id).getActions()) {
+            switch (action.getName()) {
                 case Value.TEXT_TYPE:
                     continue;
                 case Value.REVISION_TYPE:
-                    var revision = Converter.toInteger(valueObject.getString("revision", null));
-                    setRevision(revision);
+                    setRevision(action.number, cache);
                     continue;
                 case Value.MALICIOUS_SCORE_TYPE:
-                    var type = Converter.toInteger(valueObject.getString("type", null));
-                    processMaliciousProposal(Converter.toAddress(valueObject.getString("address", null)), type);
+                    processMaliciousProposal(action.address, action.number);
                     continue;
                 case Value.PREP_DISQUALIFICATION_TYPE:
-                    disqualifyPRep(Converter.toAddress(valueObject.getString("address", null)));
+                    disqualifyPRep(action.address, cache);
                     continue;
                 case Value.STEP_PRICE_TYPE:
-                    var price = Converter.toInteger(valueObject.getString("stepPrice", null));
-                    setStepPrice(price);
+                    setStepPrice(action.number, cache);
                     continue;
                 case Value.STEP_COSTS_TYPE:
-                    var stepCosts = Value.StepCosts.fromJson(valueObject.get("costs").asObject());
-                    for (Value.StepCosts.StepCost s : stepCosts.getCosts()) {
+                    for (Value.StepCosts.StepCost s : action.stepCosts.getCosts()) {
                         setStepCosts(s.getType(), s.getCost());
                     }
                     continue;
                 case Value.REWARD_FUND_TYPE:
-                    var iglobal = Converter.toInteger(valueObject.getString("iglobal", null));
-                    setRewardFund(iglobal);
+                    setRewardFund(action.number);
                     continue;
                 case Value.REWARD_FUNDS_ALLOCATION:
-                    var rewardRatio = Value.RewardFunds.fromJson(valueObject.get("rewardFunds").asObject());
+                    var rewardRatio = action.rewardFunds;
                     BigInteger iprep = BigInteger.ZERO;
                     BigInteger icps = BigInteger.ZERO;
                     BigInteger irelay = BigInteger.ZERO;
@@ -421,12 +777,9 @@ public class Governance {
                     setRewardFundsRate(iprep, icps, irelay, ivoter);
                     continue;
                 case Value.NETWORK_SCORE_DESIGNATION_TYPE: {
-                    var networkScores = valueObject.get("networkScores").asArray();
-                    int l = networkScores.size();
-                    for (int j = 0; j < l; j++) {
-                        var v = networkScores.get(j).asObject();
-                        String role = v.getString("role", null);
-                        Address address = Converter.toAddress(v.getString("address", null));
+                    for (int j = 0; j < action.roles.length; j++) {
+                        String role = action.roles[j];
+                        Address address = action.scores[j];
                         ChainScore.setNetworkScore(role, address);
                         if (address != null) NetworkScoreDesignated(role, address);
                         else NetworkScoreDeallocated(role);
@@ -434,41 +787,30 @@ public class Governance {
                     continue;
                 }
                 case Value.NETWORK_SCORE_UPDATE_TYPE:
-                    Address addr = Converter.toAddress(valueObject.getString("address", null));
-                    var content = Converter.hexToBytes(valueObject.getString("content", null));
-                    var params = valueObject.get("params");
-                    if (params == null) {
+                    Address addr = action.address;
+                    var content = action.content != null ? action.content : contentStore.load(action.contentHash);
+                    if (action.params == null) {
                         Context.deploy(addr, content);
                     } else {
-                        var p = params.asArray();
-                        var size = p.size();
-                        String[] scoreParams = new String[size];
-                        for (int j = 0; j < size; j++) {
-                            scoreParams[j] = p.get(j).asString();
-                        }
-                        Context.deploy(addr, content, (Object[]) scoreParams);
+                        Context.deploy(addr, content, (Object[]) action.params);
                     }
                     NetworkScoreUpdated(addr);
                     continue;
-                case Value.ACCUMULATED_VALIDATION_FAILURE_SLASHING_RATE: {
-                    var rate = Converter.toInteger(valueObject.getString("slashingRate", null));
-                    ChainScore.setConsistentValidationSlashingRate(rate);
+                case Value.ACCUMULATED_VALIDATION_FAILURE_SLASHING_RATE:
+                    ChainScore.setConsistentValidationSlashingRate(action.number);
                     continue;
-                }
-                case Value.MISSED_NETWORK_PROPOSAL_VOTE_SLASHING_RATE: {
-                    var rate = Converter.toInteger(valueObject.getString("slashingRate", null));
-                    ChainScore.setNonVoteSlashingRate(rate);
+                case Value.MISSED_NETWORK_PROPOSAL_VOTE_SLASHING_RATE:
+                    ChainScore.setNonVoteSlashingRate(action.number);
                     continue;
-                }
                 case Value.CALL:
-                    var request = Request.fromJson(valueObject);
-                    request.call();
+                    action.request.call();
             }
         }
     }
 
-    public void validateProposals(JsonArray values) {
+    public ActionPlan validateProposals(JsonArray values, ChainScore.Cache cache) {
         int length = values.size();
+        var actions = new ActionPlan.Action[length];
         for (int i = 0; i < length; i++) {
             var object = values.get(i).asObject();
             var name = object.getString("name", "");
@@ -478,74 +820,69 @@ public class Governance {
             Context.require(keys.size() == 2);
             keys = value.names();
             var size = keys.size();
+            var action = ActionPlan.Action.fromJson(name, value);
             switch (name) {
                 case Value.TEXT_TYPE:
                     Context.require(size == 1);
                     Context.require(value.getString("text", null) != null);
-                    continue;
+                    break;
                 case Value.REVISION_TYPE:
                     Context.require(size == 1);
-                    var revision = Converter.toInteger(value.getString("revision", null));
-                    validateRevision(revision);
-                    continue;
+                    validateRevision(action.number, cache);
+                    break;
                 case Value.MALICIOUS_SCORE_TYPE:
                     Context.require(size == 2);
-                    var type = Converter.toInteger(value.getString("type", null));
-                    validateMaliciousScore(Converter.toAddress(value.getString("address", null)), type.intValue());
-                    continue;
+                    validateMaliciousScore(action.address, action.number.intValue());
+                    break;
                 case Value.PREP_DISQUALIFICATION_TYPE:
                     Context.require(size == 1);
-                    validateDisqualifyPRep(Converter.toAddress(value.getString("address", null)));
-                    continue;
+                    validateDisqualifyPRep(action.address, cache);
+                    break;
                 case Value.STEP_PRICE_TYPE:
                     Context.require(size == 1);
-                    var price = Converter.toInteger(value.getString("stepPrice", null));
-                    validateStepPrice(price);
-                    continue;
+                    validateStepPrice(action.number, cache);
+                    break;
                 case Value.STEP_COSTS_TYPE:
                     Context.require(size == 1);
-                    Value.StepCosts.fromJson(value.get("costs").asObject());
-                    continue;
+                    break;
                 case Value.REWARD_FUND_TYPE:
                     Context.require(size == 1);
-                    var iglobal = Converter.toInteger(value.getString("iglobal", null));
-                    ChainScore.validateRewardFund(iglobal);
-                    continue;
+                    ChainScore.validateRewardFund(action.number);
+                    break;
                 case Value.REWARD_FUNDS_ALLOCATION:
                     Context.require(size == 1);
-                    var funds = Value.RewardFunds.fromJson(value.get("rewardFunds").asObject());
-                    validateRewardFundsRate(funds);
-                    continue;
+                    validateRewardFundsRate(action.rewardFunds);
+                    break;
                 case Value.NETWORK_SCORE_DESIGNATION_TYPE:
                     Context.require(size == 1);
-                    validateDesignationProposal(value);
-                    continue;
+                    validateDesignationProposal(value, cache);
+                    break;
                 case Value.NETWORK_SCORE_UPDATE_TYPE:
                     var required = value.get("params") == null ? 2 : 3;
                     Context.require(size == required, "Invalid array size");
-                    Context.require(Converter.toAddress(value.getString("address", null)) != null, "Invalid address");
-                    Converter.hexToBytes(value.getString("content", null));
-                    continue;
+                    Context.require(action.address != null, "Invalid address");
+                    if (action.contentHash != null) {
+                        Context.require(contentStore.isSealed(action.contentHash), "Content not sealed");
+                    }
+                    break;
                 case Value.ACCUMULATED_VALIDATION_FAILURE_SLASHING_RATE:
                 case Value.MISSED_NETWORK_PROPOSAL_VOTE_SLASHING_RATE:
                     Context.require(size == 1);
-                    var slashingRate = Converter.toInteger(value.getString("slashingRate", null));
+                    var slashingRate = action.number;
                     Context.require(slashingRate.compareTo(BigInteger.ZERO) >= 0 && slashingRate.compareTo(ONE_HUNDRED) <= 0,
                             "slashing rate invalid");
-                    continue;
+                    break;
                 case Value.CALL:
-                    var request = Request.fromJson(value);
-                    // prevalidate the parameter conversion
-                    request.getParams();
-                    continue;
-                default:
-                    Context.revert("undefined proposal type");
+                    // parameters are converted by ActionPlan.Action.fromJson, which fails on invalid ones
+                    break;
             }
+            actions[i] = action;
         }
+        return new ActionPlan(actions);
     }
 
-    private void validateRevision(BigInteger revision) {
-        var prev = ChainScore.getRevision();
+    private void validateRevision(BigInteger revision, ChainScore.Cache cache) {
+        var prev = cache.getRevision();
         Context.require(revision.compareTo(prev) > 0, "can not decrease revision");
     }
 
@@ -559,13 +896,13 @@ public class Governance {
         }
     }
 
-    private void validateDisqualifyPRep(Address address) {
-        var prepInfo = ChainScore.getPrepInfo(address);
+    private void validateDisqualifyPRep(Address address, ChainScore.Cache cache) {
+        var prepInfo = cache.getPrepInfo(address);
         Context.require(prepInfo != null && prepInfo.getStatus().compareTo(PRepInfo.STATUS_ACTIVE) == 0, address.toString() + " is not p-rep");
     }
 
-    private void validateStepPrice(BigInteger price) {
-        var prevPrice = ChainScore.getStepPrice();
+    private void validateStepPrice(BigInteger price, ChainScore.Cache cache) {
+        var prevPrice = cache.getStepPrice();
         var max = prevPrice.multiply(BigInteger.valueOf(125)).divide(ONE_HUNDRED);
         var min = prevPrice.multiply(BigInteger.valueOf(75)).divide(ONE_HUNDRED);
         Context.require(price.compareTo(min) >= 0 && price.compareTo(max) <= 0, "Invalid step price: " + price);
@@ -583,7 +920,7 @@ public class Governance {
         Context.require(sum.compareTo(ONE_HUNDRED) == 0, "sum of reward funds must be 100");
     }
 
-    private void validateDesignationProposal(JsonObject value) {
+    private void validateDesignationProposal(JsonObject value, ChainScore.Cache cache) {
         var networkScores = value.get("networkScores").asArray();
         int length = networkScores.size();
         Context.require(0 < length && length <= 2, "Invalid array size");
@@ -594,24 +931,36 @@ public class Governance {
             Context.require(Value.CPS_SCORE.equals(role) || Value.RELAY_SCORE.equals(role),
                     "Invalid network SCORE role: " + role);
             if (address == null) return;
-            Address owner = ChainScore.getScoreOwner(address);
+            Address owner = cache.getScoreOwner(address);
             Context.require(owner.equals(Governance.ADDRESS), "Only owned by governance can be designated");
         }
     }
 
-    private void setTimerInfo(BigInteger penaltyHeight) {
-        TimerInfo ti = timerInfo.getOrDefault(penaltyHeight, null);
-        if (ti == null) {
-            ti = new TimerInfo(new TimerInfo.ProposalIds());
-            ti.addProposalId(Context.getTransactionHash());
-            timerInfo.set(penaltyHeight, ti);
+    private void addToTimerBucket(BigInteger penaltyHeight) {
+        var bucket = getTimerBucket(penaltyHeight);
+        if (bucket.size() == 0) {
             ChainScore.addTimer(penaltyHeight);
-        } else {
-            ti.addProposalId(Context.getTransactionHash());
-            timerInfo.set(penaltyHeight, ti);
         }
+        var id = Context.getTransactionHash();
+        timerSlots.set(id, bucket.size());
+        bucket.add(id);
+    }
+
+    // returns the bucket of the height, after moving the legacy bucket of the height into it if there is
+    private ArrayDB<byte[]> getTimerBucket(BigInteger height) {
+        var bucket = timerBuckets.at(height);
+        var ti = timerInfo.getOrDefault(height, null);
+        if (ti != null) {
+            for (byte[] id : ti.proposalIds.ids) {
+                timerSlots.set(id, bucket.size());
+                bucket.add(id);
+            }
+            timerInfo.set(height, null);
+        }
+        return bucket;
     }
 
+    // legacy format of a timer bucket, which is rewritten as a whole on every change
     public static class TimerInfo {
         ProposalIds proposalIds;
 
@@ -727,6 +1076,9 @@ public class Governance {
     @EventLog(indexed=1)
     public void NetworkScoreUpdated(Address address) {}
 
+    @EventLog(indexed=1)
+    public void ContentSealed(byte[] hash) {}
+
     @EventLog(indexed=1)
     public void NetworkScoreDesignated(String role, Address address) {}
 
@@ -753,4 +1105,10 @@ public class Governance {
 
     @EventLog(indexed=0)
     public void NetworkProposalExpired(byte[] id) {}
+
+    @EventLog(indexed=0)
+    public void LegacyProposalsMigrated(BigInteger migrated) {}
+
+    @EventLog(indexed=0)
+    public void LegacyProposalsIndexed(BigInteger indexed) {}
 }
@@ -16,11 +16,17 @@
 
 package foundation.icon.governance;
 
+import com.eclipsesource.json.Json;
 import score.Address;
 import score.ArrayDB;
+import score.BranchDB;
 import score.Context;
 import score.DictDB;
+import score.ObjectReader;
+import score.ObjectWriter;
+import score.VarDB;
 import scorex.util.ArrayList;
+import scorex.util.HashMap;
 
 import java.math.BigInteger;
 import java.util.List;
@@ -33,7 +39,48 @@ public class NetworkProposal {
     // new proposal DB after Java migration
     private final DictDB<byte[], Proposal> proposalDict = Context.newDictDB("proposals", Proposal.class);
     private final DictDB<byte[], byte[]> proposalValueDict = Context.newDictDB("proposal_values", byte[].class);
+    // actions converted from the value on registration
+    private final DictDB<byte[], ActionPlan> proposalActions = Context.newDictDB("proposal_actions", ActionPlan.class);
     private final ArrayDB<byte[]> proposalKeys = Context.newArrayDB("proposal_keys", byte[].class);
+    // proposals registered after the header/body split
+    private final DictDB<byte[], Proposal.Header> proposalHeaders = Context.newDictDB("proposal_headers", Proposal.Header.class);
+    private final DictDB<byte[], Proposal.Body> proposalBodies = Context.newDictDB("proposal_bodies", Proposal.Body.class);
+    // per-voter vote storage, the proposal record keeps the electorate only
+    // voter status index : pending/agree/disagree for every prep in the electorate
+    private final BranchDB<byte[], DictDB<Address, Integer>> voterStatus = Context.newBranchDB("proposal_votes", Integer.class);
+    private final BranchDB<byte[], ArrayDB<VoteInfo.VoterInfo>> agreeVoters =
+            Context.newBranchDB("proposal_agree_voters", VoteInfo.VoterInfo.class);
+    private final BranchDB<byte[], ArrayDB<VoteInfo.VoterInfo>> disagreeVoters =
+            Context.newBranchDB("proposal_disagree_voters", VoteInfo.VoterInfo.class);
+    private final DictDB<byte[], VoteInfo.Tally> voteTally = Context.newDictDB("proposal_vote_tally", VoteInfo.Tally.class);
+    // main prep snapshots by id, proposals registered while the main preps are the same refer to it instead of
+    // embedding the list. the voter status of the electorate is written on vote only, so the members of the snapshot
+    // are pending unless voted
+    private final DictDB<byte[], Electorate> electorates = Context.newDictDB("proposal_electorates", Electorate.class);
+    private final BranchDB<byte[], DictDB<Address, Boolean>> electorateMembers =
+            Context.newBranchDB("proposal_electorate_members", Boolean.class);
+    // number of legacy proposals converted into the new proposal DB
+    private final VarDB<Integer> legacyMigrationCursor = Context.newVarDB("legacy_migration_cursor", Integer.class);
+    // secondary indexes by status, type and proposer. proposals registered before the indexes are kept in
+    // the legacy segment, which is filled from the oldest one by indexLegacyProposals
+    private final ProposalIndex statusIndex = new ProposalIndex("proposal_status_index");
+    private final BranchDB<Integer, ArrayDB<byte[]>> typeIndex = Context.newBranchDB("proposal_type_index", byte[].class);
+    private final VarDB<Integer> indexBoundary = Context.newVarDB("proposal_index_boundary", Integer.class);
+    private final VarDB<Integer> legacyIndexCursor = Context.newVarDB("proposal_legacy_index_cursor", Integer.class);
+    private final VarDB<Integer> proposalsMaxSize = Context.newVarDB("proposals_max_size", Integer.class);
+    // proposal ids by proposer
+    private final BranchDB<Address, ArrayDB<byte[]>> proposerIndex =
+            Context.newBranchDB("proposal_proposer_index", byte[].class);
+    private final BranchDB<Address, ArrayDB<byte[]>> legacyProposerIndex =
+            Context.newBranchDB("proposal_proposer_legacy_index", byte[].class);
+    // proposals not canceled and not yet processed by the timer. proposals registered before the index
+    // are added on the first registration after the update
+    private final ProposalIndex openProposals = new ProposalIndex("proposal_open_index");
+    private final VarDB<Boolean> openProposalsSeeded = Context.newVarDB("proposal_open_index_seeded", Boolean.class);
+    // statistics counted from the update, counts by status and type are taken from the secondary indexes
+    private final VarDB<Stats> stats = Context.newVarDB("proposal_stats", Stats.class);
+    private final DictDB<String, Integer> actionCounts = Context.newDictDB("proposal_stats_action_counts", Integer.class);
+    private final DictDB<BigInteger, Integer> appliedByTerm = Context.newDictDB("proposal_stats_applied_by_term", Integer.class);
 
     public static final int VOTING_STATUS = 0;
     public static final int APPLIED_STATUS = 1;
@@ -45,31 +92,156 @@ public class NetworkProposal {
     public static final int STATUS_MAX = EXPIRED_STATUS;
 
     public static final int GET_PROPOSALS_FILTER_ALL = 100;
-    public static final int GET_PROPOSALS_MAX_SIZE = 10;
+    public static final int GET_PROPOSALS_DEFAULT_SIZE = 10;
+    public static final int GET_PROPOSALS_MAX_SIZE = 50;
+    public static final int GET_PROPOSALS_SIZE_LIMIT = 500;
+    public static final int GET_VOTES_DEFAULT_SIZE = 20;
+    public static final int GET_VOTES_MAX_SIZE = 100;
+    public static final String VOTES_AGREE = "agree";
+    public static final String VOTES_DISAGREE = "disagree";
+    public static final String VOTES_NO_VOTE = "noVote";
+    public static final int MIGRATION_MAX_SIZE = 20;
+    private static final int OPEN_PROPOSALS = 0;
+    private static final int LEGACY_SEGMENT = 100;
 
     public static final int EVENT_NONE = 0;
     public static final int EVENT_APPROVED = 1;
     public static final int EVENT_DISAPPROVED = 2;
 
     public Proposal getProposal(byte[] id) {
-        byte[] data = proposalList.getOrDefault(id, new byte[0]);
+        var p = getProposalHeader(id);
+        loadBody(p);
+        return p;
+    }
+
+    /**
+     * Returns the proposal without its body (proposer name, title, description, value and vote information)
+     * if it is stored separately. Use it for the paths which need the status, heights and proposer only.
+     */
+    public Proposal getProposalHeader(byte[] id) {
         Proposal p;
-        if (data.length > 0) {
-            p = Proposal.loadJson(data);
+        var header = proposalHeaders.get(id);
+        if (header != null) {
+            p = header.getProposal();
         } else {
+            // proposals registered after Java migration are never written to the legacy DB,
+            // so only the ids missing in the new DB need to look up the legacy one
             p = proposalDict.get(id);
+            if (p == null) {
+                byte[] data = proposalList.getOrDefault(id, new byte[0]);
+                if (data.length > 0) {
+                    p = Proposal.loadJson(data);
+                }
+            }
         }
         Context.require(p != null, "No registered proposal");
+        p.tally = voteTally.get(id);
         return p;
     }
 
+    private void loadBody(Proposal p) {
+        if (p.separated && p.vote == null) {
+            proposalBodies.get(p.id).loadInto(p);
+        }
+    }
+
+    // stores the fields in the header only, if the proposal is stored separately
+    private void putProposal(Proposal p) {
+        if (p.separated) {
+            proposalHeaders.set(p.id, new Proposal.Header(p));
+        } else {
+            proposalDict.set(p.id, p);
+        }
+    }
+
+    /**
+     * Replaces the vote information of the proposal with the one built from per-voter storage.
+     * Proposals which have no tally keep the vote information embedded in the proposal record.
+     */
+    public void loadVoteInfo(Proposal p) {
+        if (p.tally == null) {
+            return;
+        }
+        var agree = agreeVoters.at(p.id);
+        var agreeList = new VoteInfo.VoterInfo[agree.size()];
+        for (int i = 0; i < agreeList.length; i++) {
+            agreeList[i] = agree.get(i);
+        }
+        var disagree = disagreeVoters.at(p.id);
+        var disagreeList = new VoteInfo.VoterInfo[disagree.size()];
+        for (int i = 0; i < disagreeList.length; i++) {
+            disagreeList[i] = disagree.get(i);
+        }
+        p.vote = new VoteInfo(
+                new VoteInfo.Vote(agreeList, p.tally.agreeAmount),
+                new VoteInfo.Vote(disagreeList, p.tally.disagreeAmount),
+                new VoteInfo.NoVote(getNonVoters(p), p.tally.noVoteAmount)
+        );
+    }
+
+    public Address[] getNonVoters(Proposal p) {
+        if (p.tally == null) {
+            return p.getNonVoters();
+        }
+        Address[] electorate;
+        if (p.electorate != null) {
+            electorate = electorates.get(p.electorate).getPreps();
+        } else {
+            loadBody(p);
+            electorate = p.vote.getNoVoteList();
+        }
+        var status = voterStatus.at(p.id);
+        var nonVoters = new Address[p.tally.noVoteCount];
+        int index = 0;
+        for (Address prep : electorate) {
+            if (status.getOrDefault(prep, VoteInfo.PENDING_VOTE) == VoteInfo.PENDING_VOTE) {
+                nonVoters[index++] = prep;
+            }
+        }
+        return nonVoters;
+    }
+
+    /**
+     * Returns the voter status of the prep for the proposal.
+     *
+     * @return one of VoteInfo.PENDING_VOTE, AGREE_VOTE and DISAGREE_VOTE,
+     *         or null if the prep was not a main prep when the proposal was registered
+     */
+    public Integer getVoterStatus(Proposal p, Address prep) {
+        if (p.tally == null) {
+            if (p.agreed(prep)) return VoteInfo.AGREE_VOTE;
+            if (p.disagreed(prep)) return VoteInfo.DISAGREE_VOTE;
+            return p.isInNoVote(prep) ? VoteInfo.PENDING_VOTE : null;
+        }
+        var status = voterStatus.at(p.id).get(prep);
+        if (status == null && p.electorate != null && electorateMembers.at(p.electorate).getOrDefault(prep, false)) {
+            return VoteInfo.PENDING_VOTE;
+        }
+        return status;
+    }
+
     public byte[] getProposalValue(byte[] id) {
         byte[] value = proposalValueDict.get(id);
         Context.require(value != null);
         return value;
     }
 
-    public List<Object> getProposals(int typeCondition, int statusCondition, int start, int size) {
+    /**
+     * Returns the actions of the proposal. For proposals registered before action plans,
+     * they are converted from the value, which is validated on registration.
+     * Contents embedded in the value are decoded from it as well, so they are stored once.
+     */
+    public ActionPlan getActionPlan(byte[] id) {
+        var plan = proposalActions.get(id);
+        if (plan == null) {
+            plan = ActionPlan.fromJson(Json.parse(new String(getProposalValue(id))).asArray());
+        } else if (plan.hasEmbeddedContent()) {
+            plan.loadEmbeddedContents(Json.parse(new String(getProposalValue(id))).asArray());
+        }
+        return plan;
+    }
+
+    public Map<String, Object> getProposals(int typeCondition, int statusCondition, int start, BigInteger cursor, int size) {
         Context.require(typeCondition == GET_PROPOSALS_FILTER_ALL ||
                         typeCondition >= Proposal.MIN && typeCondition <= Proposal.MAX,
                 "Invalid type: " + typeCondition);
@@ -77,72 +249,408 @@ public class NetworkProposal {
                         statusCondition >= NetworkProposal.STATUS_MIN && statusCondition <= NetworkProposal.STATUS_MAX,
                 "Invalid status: " + statusCondition);
         Context.require(start >= 0, "Invalid start parameter: " + start);
-        Context.require(size > 0 && size <= GET_PROPOSALS_MAX_SIZE, "Invalid size parameter: " + size);
+        Context.require(size > 0 && size <= getProposalsMaxSize(), "Invalid size parameter: " + size);
 
+        var page = new ProposalPage(typeCondition, statusCondition);
+        if (cursor.signum() > 0) {
+            page.seek(cursor);
+        } else {
+            page.skip(start);
+        }
+        var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
         var proposalList = new ArrayList<Map<String, Object>>();
-        var keySize = proposalKeys.size();
-        int count = 0;
-        for (int i = keySize - start - 1; i >= 0 && count < size; i--) {
-            var key = proposalKeys.get(i);
-            var proposal = proposalDict.get(key);
-            count += filterProposal(typeCondition, statusCondition, proposalList, proposal);
+        while (proposalList.size() < size && page.hasNext()) {
+            var proposal = page.next();
+            if (page.matches(proposal, blockHeight)) {
+                proposalList.add(proposal.getSummary(blockHeight));
+            }
         }
-        if (count == size) {
-            return List.of(proposalList.toArray());
+        if (page.hasNext()) {
+            return Map.of("proposals", List.of(proposalList.toArray()), "next", page.cursor());
         }
+        return Map.of("proposals", List.of(proposalList.toArray()));
+    }
 
-        start = start >= keySize ? start - keySize : 0;
-        var listKeySize = proposalListKeys.size();
-        for (int i = listKeySize - start - 1; i >= 0 && count < size; i--) {
-            var key = proposalListKeys.get(i);
-            var proposal = Proposal.loadJson(this.proposalList.get(key));
-            count += filterProposal(typeCondition, statusCondition, proposalList, proposal);
+    public Map<String, Object> getProposalsByIds(byte[][] ids, boolean summary) {
+        Context.require(ids.length > 0 && ids.length <= getProposalsMaxSize(), "Invalid ids size: " + ids.length);
+        var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
+        var proposals = new Object[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            var p = getProposal(ids[i]);
+            if (summary) {
+                proposals[i] = p.getSummary(blockHeight);
+            } else {
+                if (p.type == Proposal.NETWORK_PROPOSAL) {
+                    p.value = new Value(Proposal.NETWORK_PROPOSAL, getProposalValue(p.id));
+                }
+                loadVoteInfo(p);
+                proposals[i] = p.toMap(blockHeight);
+            }
+        }
+        return Map.of("proposals", List.of(proposals));
+    }
+
+    public Map<String, Object> getProposalVotes(byte[] id, String kind, int start, int size) {
+        Context.require(start >= 0, "Invalid start parameter: " + start);
+        Context.require(size > 0 && size <= GET_VOTES_MAX_SIZE, "Invalid size parameter: " + size);
+        Context.require(kind.equals(VOTES_AGREE) || kind.equals(VOTES_DISAGREE) || kind.equals(VOTES_NO_VOTE),
+                "Invalid kind: " + kind);
+        var p = getProposalHeader(id);
+        Object[] list;
+        if (kind.equals(VOTES_NO_VOTE)) {
+            var nonVoters = getNonVoters(p);
+            list = new Object[Math.max(Math.min(start + size, nonVoters.length) - start, 0)];
+            for (int i = 0; i < list.length; i++) {
+                list[i] = nonVoters[start + i];
+            }
+        } else if (p.tally != null) {
+            var voters = kind.equals(VOTES_AGREE) ? agreeVoters.at(id) : disagreeVoters.at(id);
+            list = new Object[Math.max(Math.min(start + size, voters.size()) - start, 0)];
+            for (int i = 0; i < list.length; i++) {
+                list[i] = voters.get(start + i).toMap();
+            }
+        } else {
+            var voters = kind.equals(VOTES_AGREE) ? p.vote.getAgreeVoters() : p.vote.getDisagreeVoters();
+            list = new Object[Math.max(Math.min(start + size, voters.length) - start, 0)];
+            for (int i = 0; i < list.length; i++) {
+                list[i] = voters[start + i].toMap();
+            }
+        }
+        var summary = p.getVoteSummary().get(kind);
+        var count = (int) summary.get("count");
+        if (start + list.length < count) {
+            return Map.of("count", count, "amount", summary.get("amount"), "list", List.of(list),
+                    "next", start + list.length);
+        }
+        return Map.of("count", count, "amount", summary.get("amount"), "list", List.of(list));
+    }
+
+    /*
+        Walks proposals from the latest one over two segments, the new segment first and then the legacy one.
+        Unless the indexes are ready, segments are proposalKeys and proposalListKeys,
+        otherwise they are the new and legacy segment of the status or type index.
+        The cursor encodes (index + 1, indexed, segment) of the next proposal. All the lists are append-only,
+        so it stays valid after new registrations and status changes.
+    */
+    private class ProposalPage {
+        private final int typeCondition;
+        private final int statusCondition;
+        private final boolean byStatus;
+        private boolean indexed;
+        private int segment;
+        private int index;
+        private int skip;
+
+        ProposalPage(int typeCondition, int statusCondition) {
+            this.typeCondition = typeCondition;
+            this.statusCondition = statusCondition;
+            this.byStatus = statusCondition != GET_PROPOSALS_FILTER_ALL;
+            this.indexed = (typeCondition != GET_PROPOSALS_FILTER_ALL || byStatus) && isIndexed();
+            this.segment = 0;
+            this.index = segmentSize() - 1;
+        }
+
+        // start is the number of matched proposals to skip
+        void skip(int start) {
+            skip = start;
+        }
+
+        void seek(BigInteger cursor) {
+            var c = cursor.longValue();
+            Context.require(BigInteger.valueOf(c).equals(cursor), "Invalid cursor: " + cursor);
+            segment = (int) (c & 1);
+            indexed = (c & 2) != 0;
+            index = (int) (c >> 2) - 1;
+            Context.require((!indexed || isIndexed()) && index >= 0 && index < segmentSize(),
+                    "Invalid cursor: " + cursor);
+        }
+
+        BigInteger cursor() {
+            return BigInteger.valueOf(((long) index + 1) << 2 | (indexed ? 2 : 0) | segment);
+        }
+
+        boolean hasNext() {
+            if (index < 0 && segment == 0) {
+                segment = 1;
+                index = segmentSize() - 1;
+            }
+            return index >= 0;
+        }
+
+        Proposal next() {
+            int i = index--;
+            if (!indexed) {
+                return segment == 0 ? getProposal(proposalKeys.get(i)) : getLegacyProposal(i, proposalListKeys.get(i));
+            }
+            int key = segment * LEGACY_SEGMENT + (byStatus ? statusCondition : typeCondition);
+            return getProposal(byStatus ? statusIndex.get(key, i) : typeIndex.at(key).get(i));
+        }
+
+        boolean matches(Proposal proposal, BigInteger blockHeight) {
+            int all = GET_PROPOSALS_FILTER_ALL;
+            // status in the index is updated when the voting period is over and the status lists keep
+            // stale entries of the proposals moved to another status, so check the current one
+            var condition = (typeCondition == proposal.type || typeCondition == all) &&
+                    (statusCondition == proposal.getStatus(blockHeight) || statusCondition == all);
+            if (condition && skip > 0) {
+                skip--;
+                return false;
+            }
+            return condition;
+        }
+
+        private int segmentSize() {
+            if (!indexed) {
+                return segment == 0 ? proposalKeys.size() : proposalListKeys.size();
+            }
+            int key = segment * LEGACY_SEGMENT + (byStatus ? statusCondition : typeCondition);
+            return byStatus ? statusIndex.size(key) : typeIndex.at(key).size();
+        }
+    }
+
+    public int getProposalsMaxSize() {
+        return proposalsMaxSize.getOrDefault(GET_PROPOSALS_MAX_SIZE);
+    }
+
+    public void setProposalsMaxSize(int size) {
+        Context.require(size >= GET_PROPOSALS_DEFAULT_SIZE && size <= GET_PROPOSALS_SIZE_LIMIT,
+                "Invalid size parameter: " + size);
+        proposalsMaxSize.set(size);
+    }
+
+    // proposals at the index lower than the boundary in proposalKeys were registered before the indexes,
+    // the boundary is fixed on the first registration or legacy indexing after the update
+    private int fixIndexBoundary() {
+        var boundary = indexBoundary.get();
+        if (boundary == null) {
+            boundary = proposalKeys.size();
+            indexBoundary.set(boundary);
+        }
+        return boundary;
+    }
+
+    private boolean isIndexed() {
+        var boundary = indexBoundary.getOrDefault(proposalKeys.size());
+        return legacyIndexCursor.getOrDefault(0) >= proposalListKeys.size() + boundary;
+    }
+
+    /**
+     * Adds proposals registered before the secondary indexes to the legacy segment of the indexes, from the oldest one.
+     * The status of those whose voting period was over before the timer stored the status is settled on the way,
+     * and proposals still in the voting period are settled by the timer.
+     * It resumes from the last indexed proposal and indexes at most size proposals per call.
+     *
+     * @return the number of legacy proposals indexed so far
+     */
+    public int indexLegacyProposals(int size) {
+        Context.require(size > 0 && size <= MIGRATION_MAX_SIZE, "Invalid size parameter: " + size);
+        var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
+        int cursor = legacyIndexCursor.getOrDefault(0);
+        int listKeySize = proposalListKeys.size();
+        int end = Math.min(cursor + size, listKeySize + fixIndexBoundary());
+        for (int i = cursor; i < end; i++) {
+            var id = i < listKeySize ? proposalListKeys.get(i) : proposalKeys.get(i - listKeySize);
+            var proposal = getProposalHeader(id);
+            int status = settleStatus(proposal, blockHeight);
+            statusIndex.add(LEGACY_SEGMENT + status, id);
+            typeIndex.at(LEGACY_SEGMENT + proposal.type).add(id);
+            legacyProposerIndex.at(proposal.proposer).add(id);
         }
-        return List.of(proposalList.toArray());
+        legacyIndexCursor.set(end);
+        return end;
     }
 
-    private int filterProposal(int typeCondition, int statusCondition, ArrayList<Map<String, Object>> proposals, Proposal proposal) {
+    /**
+     * Returns summaries of the proposals registered by the proposer from the latest one.
+     * Proposals registered before the proposer index are included only after indexLegacyProposals reaches them.
+     */
+    public Map<String, Object> getProposalsByProposer(Address proposer, int start, int size) {
+        Context.require(start >= 0, "Invalid start parameter: " + start);
+        Context.require(size > 0 && size <= getProposalsMaxSize(), "Invalid size parameter: " + size);
+        var ids = proposerIndex.at(proposer);
+        var legacyIds = legacyProposerIndex.at(proposer);
+        int newSize = ids.size();
+        int total = newSize + legacyIds.size();
+        int end = Math.min(start + size, total);
+        var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
+        var proposals = new Object[Math.max(end - start, 0)];
+        for (int i = start; i < end; i++) {
+            var id = i < newSize ? ids.get(newSize - 1 - i) : legacyIds.get(total - 1 - i);
+            proposals[i - start] = getProposal(id).getSummary(blockHeight);
+        }
+        if (end < total) {
+            return Map.of("proposals", List.of(proposals), "next", end);
+        }
+        return Map.of("proposals", List.of(proposals));
+    }
+
+    /**
+     * Returns the proposals which the prep is in the electorate of and has not voted for yet,
+     * among the proposals still open for voting.
+     */
+    public Map<String, Object> getPendingVotes(Address prep) {
         var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
-        int type = proposal.type;
-        int status = proposal.getStatus(blockHeight);
-        int all = NetworkProposal.GET_PROPOSALS_FILTER_ALL;
-        var condition = ((typeCondition == type || typeCondition == all) && (statusCondition == status || statusCondition == all));
-        if (condition) {
-            var proposalMap = proposal.getSummary(blockHeight);
-            proposals.add(proposalMap);
-            return 1;
+        var pending = new ArrayList<Map<String, Object>>();
+        for (byte[] id : getOpenProposals(blockHeight)) {
+            var p = getProposalHeader(id);
+            if (p.isExpired(blockHeight) || p.status == CANCELED_STATUS) {
+                continue;
+            }
+            var status = getVoterStatus(p, prep);
+            if (status != null && status == VoteInfo.PENDING_VOTE) {
+                pending.add(Map.of(
+                        "id", id,
+                        "status", p.getStatus(blockHeight),
+                        "endBlockHeight", p.expireBlockHeight
+                ));
+            }
+        }
+        return Map.of("proposals", List.of(pending.toArray()));
+    }
+
+    private byte[][] getOpenProposals(BigInteger blockHeight) {
+        if (!openProposalsSeeded.getOrDefault(false)) {
+            return findOpenProposals(blockHeight);
+        }
+        var ids = new byte[openProposals.size(OPEN_PROPOSALS)][];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = openProposals.get(OPEN_PROPOSALS, i);
+        }
+        return ids;
+    }
+
+    // walks proposals registered before the open index from the latest one. the voting period depends on the term
+    // at registration, so expired ones are skipped until the proposals registered before the longest period,
+    // which is five terms
+    private byte[][] findOpenProposals(BigInteger blockHeight) {
+        var period = (BigInteger) ChainScore.getPRepTerm().get("period");
+        var oldest = blockHeight.subtract(period.multiply(BigInteger.valueOf(5)));
+        var ids = new ArrayList<byte[]>();
+        for (int i = proposalKeys.size() - 1; i >= 0; i--) {
+            var id = proposalKeys.get(i);
+            var p = getProposalHeader(id);
+            if (p.startBlockHeight.compareTo(oldest) < 0) {
+                break;
+            }
+            if (!p.isExpired(blockHeight) && p.status != CANCELED_STATUS) {
+                ids.add(id);
+            }
+        }
+        var result = new byte[ids.size()][];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        return result;
+    }
+
+    private void seedOpenProposals() {
+        if (openProposalsSeeded.getOrDefault(false)) {
+            return;
+        }
+        var ids = findOpenProposals(BigInteger.valueOf(Context.getBlockHeight()));
+        for (int i = ids.length - 1; i >= 0; i--) {
+            openProposals.add(OPEN_PROPOSALS, ids[i]);
         }
-        return 0;
+        openProposalsSeeded.set(true);
+    }
+
+    // removes the proposal from the open proposals when it's canceled or processed by the timer,
+    // and returns whether it was open
+    public boolean closeProposal(byte[] id) {
+        return openProposals.remove(id);
+    }
+
+    // actions stored on registration without the contents embedded in the value, null for older proposals
+    public ActionPlan getStoredActionPlan(byte[] id) {
+        return proposalActions.get(id);
+    }
+
+    /**
+     * Stores the status derived from the block height if the voting period of the proposal is over.
+     * An expired proposal which has been applied is settled as applied.
+     *
+     * @return the settled status
+     */
+    public int settleStatus(Proposal p, BigInteger blockHeight) {
+        int status = p.getStatus(blockHeight);
+        if (status == EXPIRED_STATUS && p.apply != null) {
+            status = APPLIED_STATUS;
+        }
+        if (status != p.status) {
+            setStatus(p, status);
+        }
+        return status;
+    }
+
+    public void updateStatusIndex(byte[] id, int status) {
+        var key = statusIndex.keyOf(id);
+        if (key != null) {
+            statusIndex.move(id, (key >= LEGACY_SEGMENT ? LEGACY_SEGMENT : 0) + status);
+        }
+    }
+
+    private Proposal getLegacyProposal(int index, byte[] key) {
+        if (index < legacyMigrationCursor.getOrDefault(0)) {
+            return proposalDict.get(key);
+        }
+        // legacy proposals whose status is settled are written in the new proposal DB before the migration
+        var p = proposalDict.get(key);
+        return p != null ? p : Proposal.loadJson(proposalList.get(key));
+    }
+
+    /**
+     * Converts legacy proposals written in JSON into the new proposal DB.
+     * It resumes from the last converted proposal and converts at most size proposals per call.
+     *
+     * @return the number of legacy proposals converted so far
+     */
+    public int migrateLegacyProposals(int size) {
+        Context.require(size > 0 && size <= MIGRATION_MAX_SIZE, "Invalid size parameter: " + size);
+        int cursor = legacyMigrationCursor.getOrDefault(0);
+        int end = Math.min(cursor + size, proposalListKeys.size());
+        for (int i = cursor; i < end; i++) {
+            var key = proposalListKeys.get(i);
+            if (proposalDict.get(key) == null) {
+                proposalDict.set(key, Proposal.loadJson(proposalList.get(key)));
+            }
+        }
+        legacyMigrationCursor.set(end);
+        return end;
+    }
+
+    public Map<String, Object> getLegacyMigrationStatus() {
+        return Map.of(
+                "migrated", legacyMigrationCursor.getOrDefault(0),
+                "total", proposalListKeys.size(),
+                "indexed", legacyIndexCursor.getOrDefault(0),
+                "indexTotal", proposalListKeys.size() + indexBoundary.getOrDefault(proposalKeys.size())
+        );
     }
 
     public void registerProposal(
             String title,
             String description,
             Value value,
+            ActionPlan plan,
+            String proposerName,
             BigInteger expireHeight
     ) {
         var id = Context.getTransactionHash();
         var proposer = Context.getCaller();
         var blockHeight = BigInteger.valueOf(Context.getBlockHeight());
         var prepsInfo = ChainScore.getMainPRepsInfo();
+        var preps = new Address[prepsInfo.length];
         BigInteger totalPower = BigInteger.ZERO;
-        String proposerName = "";
-        Address[] preps = new Address[prepsInfo.length];
-
-        VoteInfo v = new VoteInfo();
-
         for (int i = 0; i < prepsInfo.length; i++) {
-            var prep = prepsInfo[i];
-            if (proposer.equals(prep.getAddress())) {
-                proposerName = prep.getName();
-            }
-
-            totalPower = totalPower.add(prep.power());
-            preps[i] = prep.getAddress();
+            preps[i] = prepsInfo[i].getAddress();
+            totalPower = totalPower.add(prepsInfo[i].power());
         }
+        var electorateId = snapshotElectorate(new Electorate(preps));
 
+        // the electorate is kept in the snapshot, so the vote information has the amount only
+        VoteInfo v = new VoteInfo();
         v.setAmountForNoVote(totalPower);
-        v.setNoVoteList(preps);
+        var tally = new VoteInfo.Tally(0, BigInteger.ZERO, 0, BigInteger.ZERO, preps.length, totalPower);
 
         Proposal proposal = new Proposal(
                 id,
@@ -156,18 +664,129 @@ public class NetworkProposal {
                 expireHeight,
                 VOTING_STATUS,
                 v,
-                prepsInfo.length,
+                preps.length,
                 totalPower,
                 null
         );
-        proposalDict.set(id, proposal);
+        proposal.electorate = electorateId;
+        fixIndexBoundary();
+        seedOpenProposals();
+        proposalHeaders.set(id, new Proposal.Header(proposal));
+        proposalBodies.set(id, new Proposal.Body(proposal));
         proposalKeys.add(id);
         proposalValueDict.set(id, value.data());
+        proposalActions.set(id, plan);
+        voteTally.set(id, tally);
+        statusIndex.add(VOTING_STATUS, id);
+        typeIndex.at(Proposal.NETWORK_PROPOSAL).add(id);
+        proposerIndex.at(proposer).add(id);
+        openProposals.add(OPEN_PROPOSALS, id);
+
+        var st = loadStats();
+        st.electorateSize += preps.length;
+        st.electoratePower = st.electoratePower.add(totalPower);
+        stats.set(st);
+        for (ActionPlan.Action action : plan.getActions()) {
+            actionCounts.set(action.getName(), actionCounts.getOrDefault(action.getName(), 0) + 1);
+        }
+    }
+
+    // returns the id of the main prep snapshot, taking it if the main preps are new
+    private byte[] snapshotElectorate(Electorate electorate) {
+        var id = electorate.getId();
+        if (electorates.get(id) == null) {
+            var members = electorateMembers.at(id);
+            for (Address prep : electorate.getPreps()) {
+                members.set(prep, true);
+            }
+            electorates.set(id, electorate);
+        }
+        return id;
+    }
+
+    // counts the proposal applied in the current term
+    public void countApplied(ChainScore.Cache cache) {
+        var term = (BigInteger) cache.getPRepTerm().get("sequence");
+        appliedByTerm.set(term, appliedByTerm.getOrDefault(term, 0) + 1);
+    }
+
+    private Stats loadStats() {
+        return stats.getOrDefault(new Stats(0, BigInteger.ZERO, 0, BigInteger.ZERO));
+    }
+
+    /**
+     * Returns counters of proposals and votes. Counts by status and type include proposals registered
+     * before the indexes once they are indexed, and the other counters are counted from the update.
+     */
+    public Map<String, Object> getStats() {
+        var statusCounts = new Object[STATUS_MAX + 1];
+        for (int i = STATUS_MIN; i <= STATUS_MAX; i++) {
+            statusCounts[i] = statusIndex.count(i) + statusIndex.count(LEGACY_SEGMENT + i);
+        }
+        var typeCounts = new Object[Proposal.MAX + 1];
+        for (int i = Proposal.MIN; i <= Proposal.MAX; i++) {
+            typeCounts[i] = typeIndex.at(i).size() + typeIndex.at(LEGACY_SEGMENT + i).size();
+        }
+        var actions = new HashMap<String, Integer>();
+        for (String type : Value.TYPES) {
+            actions.put(type, actionCounts.getOrDefault(type, 0));
+        }
+        var term = (BigInteger) ChainScore.getPRepTerm().get("sequence");
+        var st = loadStats();
+        return Map.ofEntries(
+                Map.entry("indexed", isIndexed()),
+                Map.entry("statusCounts", List.of(statusCounts)),
+                Map.entry("typeCounts", List.of(typeCounts)),
+                Map.entry("actionCounts", actions),
+                Map.entry("votes", st.votes),
+                Map.entry("votedPower", st.votedPower),
+                Map.entry("electorateSize", st.electorateSize),
+                Map.entry("electoratePower", st.electoratePower),
+                Map.entry("appliedThisTerm", appliedByTerm.getOrDefault(term, 0))
+        );
+    }
+
+    public static class Stats {
+        // votes cast and the power of them
+        int votes;
+        BigInteger votedPower;
+        // sum of the electorate size and power of registered proposals, the denominators of the turnout
+        int electorateSize;
+        BigInteger electoratePower;
+
+        public Stats(int votes, BigInteger votedPower, int electorateSize, BigInteger electoratePower) {
+            this.votes = votes;
+            this.votedPower = votedPower;
+            this.electorateSize = electorateSize;
+            this.electoratePower = electoratePower;
+        }
+
+        public static void writeObject(ObjectWriter w, Stats s) {
+            w.beginList(4);
+            w.write(s.votes);
+            w.write(s.votedPower);
+            w.write(s.electorateSize);
+            w.write(s.electoratePower);
+            w.end();
+        }
+
+        public static Stats readObject(ObjectReader r) {
+            r.beginList();
+            var s = new Stats(
+                    r.readInt(),
+                    r.readBigInteger(),
+                    r.readInt(),
+                    r.readBigInteger()
+            );
+            r.end();
+            return s;
+        }
     }
 
     public void setStatus(Proposal p, int status) {
         p.status = status;
-        proposalDict.set(p.id, p);
+        putProposal(p);
+        updateStatusIndex(p.id, status);
     }
 
     public int voteProposal(
@@ -175,7 +794,29 @@ public class NetworkProposal {
             int vote,
             PRepInfo prep
     ) {
-        p.updateVote(prep, vote);
+        if (p.tally == null) {
+            migrateVotes(p);
+        }
+        var voter = new VoteInfo.VoterInfo(
+                Context.getTransactionHash(),
+                BigInteger.valueOf(Context.getTransactionTimestamp()),
+                prep.getAddress(),
+                prep.getName(),
+                prep.power()
+        );
+        if (vote == VoteInfo.AGREE_VOTE) {
+            agreeVoters.at(p.id).add(voter);
+        } else {
+            disagreeVoters.at(p.id).add(voter);
+        }
+        voterStatus.at(p.id).set(prep.getAddress(), vote);
+        p.tally.vote(vote, prep.power());
+        voteTally.set(p.id, p.tally);
+        var st = loadStats();
+        st.votes++;
+        st.votedPower = st.votedPower.add(prep.power());
+        stats.set(st);
+
         int votingEvent = EVENT_NONE;
         int currentStatus = p.status;
         if (currentStatus == VOTING_STATUS) {
@@ -196,7 +837,41 @@ public class NetworkProposal {
                 }
             }
         }
-        proposalDict.set(p.id, p);
+        if (votingEvent != EVENT_NONE) {
+            putProposal(p);
+            updateStatusIndex(p.id, p.status);
+        }
         return votingEvent;
     }
+
+    // moves the votes embedded in a proposal registered before per-voter storage
+    private void migrateVotes(Proposal p) {
+        var agreeList = p.vote.getAgreeVoters();
+        var disagreeList = p.vote.getDisagreeVoters();
+        var noVoteList = p.vote.getNoVoteList();
+        var electorate = new Address[agreeList.length + disagreeList.length + noVoteList.length];
+        int index = 0;
+        for (VoteInfo.VoterInfo v : agreeList) {
+            agreeVoters.at(p.id).add(v);
+            voterStatus.at(p.id).set(v.getAddress(), VoteInfo.AGREE_VOTE);
+            electorate[index++] = v.getAddress();
+        }
+        for (VoteInfo.VoterInfo v : disagreeList) {
+            disagreeVoters.at(p.id).add(v);
+            voterStatus.at(p.id).set(v.getAddress(), VoteInfo.DISAGREE_VOTE);
+            electorate[index++] = v.getAddress();
+        }
+        for (Address a : noVoteList) {
+            voterStatus.at(p.id).set(a, VoteInfo.PENDING_VOTE);
+            electorate[index++] = a;
+        }
+        p.tally = p.vote.getTally();
+        voteTally.set(p.id, p.tally);
+
+        var v = new VoteInfo();
+        v.setAmountForNoVote(p.totalPower);
+        v.setNoVoteList(electorate);
+        p.vote = v;
+        putProposal(p);
+    }
 }
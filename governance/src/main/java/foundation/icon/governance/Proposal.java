@@ -23,7 +23,6 @@ import score.Address;
 import score.ObjectReader;
 import score.ObjectWriter;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Map;
 
@@ -56,6 +55,13 @@ public class Proposal {
     int totalVoter;
     BigInteger totalPower;
     ApplyInfo apply;
+    // running vote tally kept outside of the proposal record, null for proposals voted before per-voter storage
+    VoteInfo.Tally tally;
+    // whether the proposal is stored as a header and a body, instead of a single record
+    boolean separated;
+    // id of the electorate snapshot the proposal refers to,
+    // null for proposals which embed the electorate in the vote information
+    byte[] electorate;
 
     public Proposal(
             byte[] id,
@@ -130,6 +136,120 @@ public class Proposal {
         return p;
     }
 
+    /*
+        Fields read and written by control paths (vote, apply, cancel and timer).
+        Text fields and vote information are kept in Body, which is loaded only when needed.
+    */
+    public static class Header {
+        private final Proposal proposal;
+
+        public Header(Proposal proposal) {
+            this.proposal = proposal;
+        }
+
+        public Proposal getProposal() {
+            return proposal;
+        }
+
+        public static void writeObject(ObjectWriter w, Header h) {
+            var p = h.proposal;
+            w.beginList(p.electorate != null ? 10 : 9);
+            w.write(p.id);
+            w.write(p.proposer);
+            w.write(p.type);
+            w.write(p.startBlockHeight);
+            w.write(p.expireBlockHeight);
+            w.write(p.status);
+            w.write(p.totalVoter);
+            w.write(p.totalPower);
+            w.writeNullable(p.apply);
+            if (p.electorate != null) {
+                w.write(p.electorate);
+            }
+            w.end();
+        }
+
+        public static Header readObject(ObjectReader r) {
+            r.beginList();
+            var id = r.readByteArray();
+            var proposer = r.readAddress();
+            var type = r.readInt();
+            var p = new Proposal(
+                    id,
+                    proposer,
+                    null,
+                    null,
+                    null,
+                    type,
+                    null,
+                    r.readBigInteger(),
+                    r.readBigInteger(),
+                    r.readInt(),
+                    null,
+                    r.readInt(),
+                    r.readBigInteger(),
+                    r.readNullable(ApplyInfo.class)
+            );
+            if (r.hasNext()) {
+                p.electorate = r.readByteArray();
+            }
+            r.end();
+            p.separated = true;
+            return new Header(p);
+        }
+    }
+
+    public static class Body {
+        private final String proposerName;
+        private final String title;
+        private final String description;
+        private final Value value;
+        private final VoteInfo vote;
+
+        public Body(String proposerName, String title, String description, Value value, VoteInfo vote) {
+            this.proposerName = proposerName;
+            this.title = title;
+            this.description = description;
+            this.value = value;
+            this.vote = vote;
+        }
+
+        public Body(Proposal p) {
+            this(p.proposerName, p.title, p.description, p.value, p.vote);
+        }
+
+        public static void writeObject(ObjectWriter w, Body b) {
+            w.beginList(5);
+            w.write(b.proposerName);
+            w.write(b.title);
+            w.write(b.description);
+            w.writeNullable(b.value);
+            w.write(b.vote);
+            w.end();
+        }
+
+        public static Body readObject(ObjectReader r) {
+            r.beginList();
+            var b = new Body(
+                    r.readString(),
+                    r.readString(),
+                    r.readString(),
+                    r.readNullable(Value.class),
+                    r.read(VoteInfo.class)
+            );
+            r.end();
+            return b;
+        }
+
+        void loadInto(Proposal p) {
+            p.proposerName = proposerName;
+            p.title = title;
+            p.description = description;
+            p.value = value;
+            p.vote = vote;
+        }
+    }
+
     public boolean isExpired(BigInteger blockHeight) {
         return blockHeight.compareTo(expireBlockHeight) > 0;
     }
@@ -153,14 +273,21 @@ public class Proposal {
     }
 
     public Map<String, Object> toMap(BigInteger blockHeight, boolean isSummary) {
+        return toMap(blockHeight, !isSummary, !isSummary);
+    }
+
+    public Map<String, Object> toMap(BigInteger blockHeight, boolean withValue, boolean withVoteList) {
         Map<String, Object> contents;
-        Map<String, Map<String, Object>> votes;
-        if (isSummary) {
-            contents = Map.of("description", description, "title", title, "type", type);
-            votes = vote.getSummary();
-        } else {
+        if (withValue) {
             contents = Map.of("description", description, "title", title, "type", type, "value", value.toMap());
+        } else {
+            contents = Map.of("description", description, "title", title, "type", type);
+        }
+        Map<String, Map<String, Object>> votes;
+        if (withVoteList) {
             votes = vote.toMap();
+        } else {
+            votes = getVoteSummary();
         }
         if (apply == null) {
             return Map.ofEntries(
@@ -187,6 +314,10 @@ public class Proposal {
         );
     }
 
+    public Map<String, Map<String, Object>> getVoteSummary() {
+        return tally != null ? tally.getSummary() : vote.getSummary();
+    }
+
     public static Proposal loadJson(byte[] data) {
         String jsonStr = new String(data);
         JsonValue json = Json.parse(jsonStr);
@@ -209,22 +340,16 @@ public class Proposal {
                 type, jsonObj.get("value").asObject()
         );
 
-        BigInteger startBlockHeight = BigDecimal.valueOf(
-                jsonObj.getDouble("start_block_height", 0)
-        ).toBigInteger();
+        BigInteger startBlockHeight = Converter.toInteger(jsonObj.get("start_block_height"));
 
-        BigInteger expireBlockHeight = BigDecimal.valueOf(
-                jsonObj.getDouble("end_block_height", 0)
-        ).toBigInteger();
+        BigInteger expireBlockHeight = Converter.toInteger(jsonObj.get("end_block_height"));
 
         int status = jsonObj.getInt("status", 0);
         VoteInfo vote = VoteInfo.makeVoter(jsonObj.get("vote"));
 
         int totalVoter = jsonObj.getInt("total_voter", 0);
 
-        BigInteger totalBondedDelegation = BigDecimal.valueOf(
-                jsonObj.getDouble("total_delegated_amount", 0)
-        ).toBigInteger();
+        BigInteger totalBondedDelegation = Converter.toInteger(jsonObj.get("total_delegated_amount"));
 
         return new Proposal(
                 id,
@@ -244,10 +369,6 @@ public class Proposal {
         );
     }
 
-    public void updateVote(PRepInfo p, int vote) {
-        this.vote.vote(p, vote);
-    }
-
     boolean agreed(Address prep) {
         return vote.agreed(prep);
     }
@@ -261,23 +382,23 @@ public class Proposal {
     }
 
     int sizeofAgreed() {
-        return vote.sizeofAgreed();
+        return tally != null ? tally.agreeCount : vote.sizeofAgreed();
     }
 
     int sizeofDisagreed() {
-        return vote.sizeofDisagreed();
+        return tally != null ? tally.disagreeCount : vote.sizeofDisagreed();
     }
 
     BigInteger amountOfAgreed() {
-        return vote.amountOfAgreed();
+        return tally != null ? tally.agreeAmount : vote.amountOfAgreed();
     }
 
     BigInteger amountOfDisagreed() {
-        return vote.amountOfDisagreed();
+        return tally != null ? tally.disagreeAmount : vote.amountOfDisagreed();
     }
 
     int sizeofNoVote() {
-        return vote.sizeofNoVote();
+        return tally != null ? tally.noVoteCount : vote.sizeofNoVote();
     }
 
     Address[] getNonVoters() {
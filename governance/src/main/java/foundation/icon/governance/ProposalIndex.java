@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import score.ArrayDB;
+import score.BranchDB;
+import score.Context;
+import score.DictDB;
+import score.ObjectReader;
+import score.ObjectWriter;
+
+/*
+    Lists of proposal ids grouped by key, where a proposal belongs to one key at a time.
+    Moving a proposal appends it to the list of the new key and leaves a stale entry in the previous one,
+    so the lists keep the order in which proposals got the key and readers should skip the entries
+    whose slot points to another key. Counts of the current members are kept apart from the list sizes.
+    Removing a proposal fills its slot with the last id of the list, which is for unordered sets only.
+*/
+public class ProposalIndex {
+    private final BranchDB<Integer, ArrayDB<byte[]>> lists;
+    private final DictDB<byte[], Slot> slots;
+    private final DictDB<Integer, Integer> counts;
+
+    public ProposalIndex(String id) {
+        this.lists = Context.newBranchDB(id, byte[].class);
+        this.slots = Context.newDictDB(id + "_slots", Slot.class);
+        this.counts = Context.newDictDB(id + "_counts", Integer.class);
+    }
+
+    public static class Slot {
+        private final int key;
+        private final int index;
+
+        public Slot(int key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        public static void writeObject(ObjectWriter w, Slot s) {
+            w.beginList(2);
+            w.write(s.key);
+            w.write(s.index);
+            w.end();
+        }
+
+        public static Slot readObject(ObjectReader r) {
+            r.beginList();
+            var s = new Slot(r.readInt(), r.readInt());
+            r.end();
+            return s;
+        }
+    }
+
+    public Integer keyOf(byte[] id) {
+        var slot = slots.get(id);
+        return slot == null ? null : slot.key;
+    }
+
+    public void add(int key, byte[] id) {
+        var list = lists.at(key);
+        slots.set(id, new Slot(key, list.size()));
+        list.add(id);
+        addCount(key, 1);
+    }
+
+    public void move(byte[] id, int key) {
+        var slot = slots.get(id);
+        if (slot == null || slot.key == key) {
+            return;
+        }
+        addCount(slot.key, -1);
+        add(key, id);
+    }
+
+    public boolean remove(byte[] id) {
+        var slot = slots.get(id);
+        if (slot == null) {
+            return false;
+        }
+        detach(slot);
+        slots.set(id, null);
+        addCount(slot.key, -1);
+        return true;
+    }
+
+
+    private void detach(Slot slot) {
+        var list = lists.at(slot.key);
+        var last = list.pop();
+        if (slot.index < list.size()) {
+            list.set(slot.index, last);
+            slots.set(last, new Slot(slot.key, slot.index));
+        }
+    }
+
+    private void addCount(int key, int delta) {
+        counts.set(key, counts.getOrDefault(key, 0) + delta);
+    }
+
+    public int count(int key) {
+        return counts.getOrDefault(key, 0);
+    }
+
+    public int size(int key) {
+        return lists.at(key).size();
+    }
+
+    public byte[] get(int key, int index) {
+        return lists.at(key).get(index);
+    }
+}
@@ -21,10 +21,13 @@ import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import score.Address;
 import score.Context;
+import score.ObjectReader;
+import score.ObjectWriter;
 import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Map;
 
 public class Request {
@@ -38,22 +41,134 @@ public class Request {
         this.params = params;
     }
 
+    /*
+        Parameter converted to the typed value on registration and stored in RLP, so calling the request
+        needs no JSON parsing.
+    */
     public static class Param {
         private final String type;
-        private final String value;
-        private final Map<String, String> fields;
+        // names and types of the fields for struct and []struct, empty for the others
+        private final String[] fieldNames;
+        private final String[] fieldTypes;
+        private final Object value;
 
-        public Param(String type, String value, Map<String, String> fields) {
+        public Param(String type, String[] fieldNames, String[] fieldTypes, Object value) {
             this.type = type;
+            this.fieldNames = fieldNames;
+            this.fieldTypes = fieldTypes;
             this.value = value;
-            this.fields = fields;
         }
 
         public Object getParam() {
-            return convertParam(type, value, fields);
+            return value;
         }
 
-        public static Object convertParam(String type, String value, Map<String, String> fields) {
+        public static void writeObject(ObjectWriter w, Param p) {
+            w.beginList(3);
+            w.write(p.type);
+            w.beginList(p.fieldNames.length * 2);
+            for (int i = 0; i < p.fieldNames.length; i++) {
+                w.write(p.fieldNames[i]);
+                w.write(p.fieldTypes[i]);
+            }
+            w.end();
+            writeValue(w, p.type, p.value, p.fieldNames, p.fieldTypes);
+            w.end();
+        }
+
+        public static Param readObject(ObjectReader r) {
+            r.beginList();
+            var type = r.readString();
+            var names = new ArrayList<String>();
+            var types = new ArrayList<String>();
+            r.beginList();
+            while (r.hasNext()) {
+                names.add(r.readString());
+                types.add(r.readString());
+            }
+            r.end();
+            var fieldNames = new String[names.size()];
+            var fieldTypes = new String[types.size()];
+            for (int i = 0; i < fieldNames.length; i++) {
+                fieldNames[i] = names.get(i);
+                fieldTypes[i] = types.get(i);
+            }
+            var value = readValue(r, type, fieldNames, fieldTypes);
+            r.end();
+            return new Param(type, fieldNames, fieldTypes, value);
+        }
+
+        private static void writeValue(ObjectWriter w, String type, Object value, String[] fieldNames, String[] fieldTypes) {
+            switch (type) {
+                case "Address":
+                    // an empty string is converted to null
+                    w.writeNullable((Address) value);
+                    return;
+                case "str":
+                    w.write((String) value);
+                    return;
+                case "int":
+                    w.write((BigInteger) value);
+                    return;
+                case "bool":
+                    w.write((boolean) value);
+                    return;
+                case "bytes":
+                    w.write((byte[]) value);
+                    return;
+                case "struct": {
+                    // values in the order of the fields
+                    var map = (Map<?, ?>) value;
+                    w.beginList(fieldNames.length);
+                    for (int i = 0; i < fieldNames.length; i++) {
+                        writeValue(w, fieldTypes[i], map.get(fieldNames[i]), fieldNames, fieldTypes);
+                    }
+                    w.end();
+                    return;
+                }
+            }
+            var elementType = type.substring(2);
+            var list = (List<?>) value;
+            w.beginList(list.size());
+            for (Object v : list) {
+                writeValue(w, elementType, v, fieldNames, fieldTypes);
+            }
+            w.end();
+        }
+
+        private static Object readValue(ObjectReader r, String type, String[] fieldNames, String[] fieldTypes) {
+            switch (type) {
+                case "Address":
+                    return r.readNullable(Address.class);
+                case "str":
+                    return r.readString();
+                case "int":
+                    return r.readBigInteger();
+                case "bool":
+                    return r.readBoolean();
+                case "bytes":
+                    return r.readByteArray();
+                case "struct": {
+                    var map = new HashMap<String, Object>();
+                    r.beginList();
+                    for (int i = 0; i < fieldNames.length; i++) {
+                        map.put(fieldNames[i], readValue(r, fieldTypes[i], fieldNames, fieldTypes));
+                    }
+                    r.end();
+                    return map;
+                }
+            }
+            var elementType = type.substring(2);
+            var list = new ArrayList<Object>();
+            r.beginList();
+            while (r.hasNext()) {
+                list.add(readValue(r, elementType, fieldNames, fieldTypes));
+            }
+            r.end();
+            return list;
+        }
+
+        public static Object convertParam(String type, String value, String[] fieldNames, String[] fieldTypes) {
             switch (type) {
                 case "Address":
                     return Converter.toAddress(value);
@@ -70,14 +185,14 @@ public class Request {
                 }
                 case "struct": {
                     var v = Json.parse(value).asObject();
-                    return convertToHashMap(v, fields);
+                    return convertToHashMap(v, fieldNames, fieldTypes);
                 }
                 case "[]struct": {
                     var array = Json.parse(value).asArray();
                     var list = new ArrayList<Map<String, Object>>();
                     for (var item : array) {
                         var v = item.asObject();
-                        list.add(convertToHashMap(v, fields));
+                        list.add(convertToHashMap(v, fieldNames, fieldTypes));
                     }
                     return list;
                 }
@@ -125,16 +240,45 @@ public class Request {
             throw new IllegalArgumentException("unknown param type");
         }
 
-        private static HashMap<String, Object> convertToHashMap(JsonObject v, Map<String, String> fields) {
+        private static HashMap<String, Object> convertToHashMap(JsonObject v, String[] fieldNames, String[] fieldTypes) {
             var map = new HashMap<String, Object>();
-            for (String key : fields.keySet()) {
-                var type = fields.get(key);
-                map.put(key, convertParam(type, v.get(key).asString(), fields));
+            for (int i = 0; i < fieldNames.length; i++) {
+                map.put(fieldNames[i], convertParam(fieldTypes[i], v.get(fieldNames[i]).asString(), fieldNames, fieldTypes));
             }
             return map;
         }
     }
 
+    public static void writeObject(ObjectWriter w, Request r) {
+        w.beginList(3);
+        w.write(r.to);
+        w.write(r.method);
+        w.beginList(r.params.length);
+        for (Param p : r.params) {
+            w.write(p);
+        }
+        w.end();
+        w.end();
+    }
+
+    public static Request readObject(ObjectReader r) {
+        r.beginList();
+        var to = r.readAddress();
+        var method = r.readString();
+        var params = new ArrayList<Param>();
+        r.beginList();
+        while (r.hasNext()) {
+            params.add(r.read(Param.class));
+        }
+        r.end();
+        r.end();
+        var pArray = new Param[params.size()];
+        for (int i = 0; i < pArray.length; i++) {
+            pArray[i] = params.get(i);
+        }
+        return new Request(to, method, pArray);
+    }
+
     public static Request fromJson(JsonObject object) {
         Context.require(object.size() == 3, "key size must be 3");
         var method = object.getString("method", "");
@@ -149,16 +293,21 @@ public class Request {
             var stringValue = getStringValue(value);
             var fields = param.get("fields") == null ? null : param.get("fields").asObject();
             var needFields = type.equals("struct") || type.equals("[]struct");
-            Map<String, String> fieldsMap = new HashMap<>();
+            String[] fieldNames = new String[0];
+            String[] fieldTypes = new String[0];
             if (needFields) {
                 Context.require(fields != null, type + " type must have fields");
-                for (String key : fields.names()) {
-                    fieldsMap.put(key, fields.get(key).asString());
+                var names = fields.names();
+                fieldNames = new String[names.size()];
+                fieldTypes = new String[names.size()];
+                for (int j = 0; j < fieldNames.length; j++) {
+                    fieldNames[j] = names.get(j);
+                    fieldTypes[j] = fields.get(fieldNames[j]).asString();
                 }
             } else {
                 Context.require(fields == null, type + " type must have no fields");
             }
-            pArray[i] = new Param(type, stringValue, fieldsMap);
+            pArray[i] = new Param(type, fieldNames, fieldTypes, Param.convertParam(type, stringValue, fieldNames, fieldTypes));
         }
         return new Request(to, method, pArray);
     }
@@ -52,6 +52,12 @@ public class Value {
     public static final String ACCUMULATED_VALIDATION_FAILURE_SLASHING_RATE = "accumulatedValidationFailureSlashingRate";
     public static final String MISSED_NETWORK_PROPOSAL_VOTE_SLASHING_RATE = "missedNetworkProposalVoteSlashingRate";
     public static final String CALL = "call";
+    static final String[] TYPES = {
+            TEXT_TYPE, REVISION_TYPE, MALICIOUS_SCORE_TYPE, PREP_DISQUALIFICATION_TYPE, STEP_PRICE_TYPE,
+            STEP_COSTS_TYPE, REWARD_FUND_TYPE, REWARD_FUNDS_ALLOCATION, NETWORK_SCORE_DESIGNATION_TYPE,
+            NETWORK_SCORE_UPDATE_TYPE, ACCUMULATED_VALIDATION_FAILURE_SLASHING_RATE,
+            MISSED_NETWORK_PROPOSAL_VOTE_SLASHING_RATE, CALL
+    };
     private byte[] data;
 
     public Value(int p, String text) {
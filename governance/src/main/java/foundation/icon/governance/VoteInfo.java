@@ -20,11 +20,9 @@ import com.eclipsesource.json.JsonArray;
 import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import score.Address;
-import score.Context;
 import score.ObjectReader;
 import score.ObjectWriter;
 
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +41,7 @@ import java.util.Map;
 public class VoteInfo {
     static final int AGREE_VOTE = 1;
     static final int DISAGREE_VOTE = 0;
+    static final int PENDING_VOTE = 2;
     private final Vote agree;
     private final Vote disagree;
     private final NoVote noVote;
@@ -85,6 +84,10 @@ public class VoteInfo {
             return v;
         }
 
+        public Address getAddress() {
+            return address;
+        }
+
         public Map<String, Object> toMap() {
             return Map.of(
                     "id", id,
@@ -162,9 +165,7 @@ public class VoteInfo {
             JsonObject obj = jsonValue.asObject();
 
             JsonArray array = obj.get("list").asArray();
-            BigInteger total = BigDecimal.valueOf(
-                    obj.getDouble("amount", 0)
-            ).toBigInteger();
+            BigInteger total = Converter.toInteger(obj.get("amount"));
             setAmount(total);
 
             VoterInfo[] voterInfoList = new VoterInfo[array.size()];
@@ -178,16 +179,12 @@ public class VoteInfo {
                 byte[] id = Converter.hexToBytes(
                         voteJson.getString("id", null)
                 );
-                BigInteger timestamp = BigDecimal.valueOf(
-                        voteJson.getDouble("timestamp", 0)
-                ).toBigInteger();
+                BigInteger timestamp = Converter.toInteger(voteJson.get("timestamp"));
                 Address address = Converter.toAddress(
                         voteJson.getString("address", null)
                 );
                 String name = voteJson.getString("name", null);
-                BigInteger amount = BigDecimal.valueOf(
-                        voteJson.getDouble("amount", 0)
-                ).toBigInteger();
+                BigInteger amount = Converter.toInteger(voteJson.get("amount"));
 
                 voterInfoList[i++] = new VoterInfo(id, timestamp, address, name, amount);
             }
@@ -228,6 +225,11 @@ public class VoteInfo {
             this.amount = BigInteger.ZERO;
         }
 
+        public NoVote(Address[] list, BigInteger amount) {
+            this.list = list;
+            this.amount = amount;
+        }
+
         public static void writeObject(ObjectWriter w, NoVote n) {
             w.beginList(2);
             w.write(n.size());
@@ -289,9 +291,7 @@ public class VoteInfo {
             JsonObject obj = jsonValue.asObject();
 
             JsonArray array = obj.get("list").asArray();
-            BigInteger total = BigDecimal.valueOf(
-                    obj.getDouble("amount", 0)
-            ).toBigInteger();
+            BigInteger total = Converter.toInteger(obj.get("amount"));
             this.setAmount(total);
 
             Address[] addrList = new Address[array.size()];
@@ -305,6 +305,70 @@ public class VoteInfo {
         }
     }
 
+    public static class Tally {
+        int agreeCount;
+        BigInteger agreeAmount;
+        int disagreeCount;
+        BigInteger disagreeAmount;
+        int noVoteCount;
+        BigInteger noVoteAmount;
+
+        public Tally(int agreeCount, BigInteger agreeAmount, int disagreeCount, BigInteger disagreeAmount,
+                     int noVoteCount, BigInteger noVoteAmount) {
+            this.agreeCount = agreeCount;
+            this.agreeAmount = agreeAmount;
+            this.disagreeCount = disagreeCount;
+            this.disagreeAmount = disagreeAmount;
+            this.noVoteCount = noVoteCount;
+            this.noVoteAmount = noVoteAmount;
+        }
+
+        public static void writeObject(ObjectWriter w, Tally t) {
+            w.beginList(6);
+            w.write(t.agreeCount);
+            w.write(t.agreeAmount);
+            w.write(t.disagreeCount);
+            w.write(t.disagreeAmount);
+            w.write(t.noVoteCount);
+            w.write(t.noVoteAmount);
+            w.end();
+        }
+
+        public static Tally readObject(ObjectReader r) {
+            r.beginList();
+            var t = new Tally(
+                    r.readInt(),
+                    r.readBigInteger(),
+                    r.readInt(),
+                    r.readBigInteger(),
+                    r.readInt(),
+                    r.readBigInteger()
+            );
+            r.end();
+            return t;
+        }
+
+        void vote(int vote, BigInteger amount) {
+            if (vote == AGREE_VOTE) {
+                agreeCount++;
+                agreeAmount = agreeAmount.add(amount);
+            } else {
+                disagreeCount++;
+                disagreeAmount = disagreeAmount.add(amount);
+            }
+            noVoteCount--;
+            noVoteAmount = noVoteAmount.subtract(amount);
+        }
+
+        public Map<String, Map<String, Object>> getSummary() {
+            return Map.of(
+                    "agree", Map.of("count", agreeCount, "amount", agreeAmount),
+                    "disagree", Map.of("count", disagreeCount, "amount", disagreeAmount),
+                    "noVote", Map.of("count", noVoteCount, "amount", noVoteAmount)
+            );
+        }
+    }
+
     public VoteInfo() {
         this.agree = new Vote();
         this.disagree = new Vote();
@@ -352,6 +416,19 @@ public class VoteInfo {
         return noVote.list;
     }
 
+    public VoterInfo[] getAgreeVoters() {
+        return agree.getVoterInfoList();
+    }
+
+    public VoterInfo[] getDisagreeVoters() {
+        return disagree.getVoterInfoList();
+    }
+
+    public Tally getTally() {
+        return new Tally(agree.size(), agree.getAmount(), disagree.size(), disagree.getAmount(),
+                noVote.size(), noVote.getAmount());
+    }
+
     public Map<String, Map<String, Object>> toMap() {
         return Map.of(
                 "agree", agree.toMap(),
@@ -425,44 +502,4 @@ public class VoteInfo {
         }
         return false;
     }
-
-    void vote(PRepInfo voter, int vote) {
-        VoteInfo.Vote v;
-        if (vote == VoteInfo.AGREE_VOTE) {
-            v = agree;
-        } else {
-            v = disagree;
-        }
-        VoteInfo.VoterInfo[] votedInfo = new VoteInfo.VoterInfo[v.voterInfoList.length + 1];
-        VoteInfo.VoterInfo voterInfo = new VoteInfo.VoterInfo(
-                Context.getTransactionHash(),
-                BigInteger.valueOf(Context.getTransactionTimestamp()),
-                voter.getAddress(),
-                voter.getName(),
-                voter.power()
-        );
-        System.arraycopy(v.voterInfoList, 0, votedInfo, 0, v.voterInfoList.length);
-        votedInfo[v.voterInfoList.length] = voterInfo;
-        v.setVoterInfoList(votedInfo);
-
-        var votedAmount = v.getAmount();
-        v.setAmount(votedAmount.add(voter.power()));
-
-        updateNoVote(voter);
-    }
-
-    private void updateNoVote(PRepInfo prep) {
-        var addresses = noVote.list;
-        int size = sizeofNoVote();
-        int index = 0;
-        var updatedList = new Address[size - 1];
-        for (int i = 0; i < size; i++) {
-            if (!prep.getAddress().equals(addresses[i])) {
-                updatedList[index++] = addresses[i];
-            }
-        }
-        noVote.setAddressList(updatedList);
-        var amount = noVote.getAmount();
-        noVote.setAmount(amount.subtract(prep.power()));
-    }
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import com.eclipsesource.json.Json;
+import com.eclipsesource.json.JsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConverterTest {
+    private static final int LARGE_PAYLOAD_SIZE = 512 * 1024;
+
+    // the decoder used before the table-driven one, kept as the reference
+    private static byte[] referenceHexToBytes(String value) {
+        String hex = value.substring(2);
+        int len = hex.length() / 2;
+        byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++) {
+            int j = i * 2;
+            bytes[i] = (byte) Integer.parseInt(hex.substring(j, j + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static byte[] payload(int size) {
+        var bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i * 31 + 7);
+        }
+        return bytes;
+    }
+
+    @Test
+    void hexToBytes() {
+        assertArrayEquals(new byte[0], Converter.hexToBytes("0x"));
+        assertArrayEquals(new byte[]{0x00, 0x7f, (byte) 0x80, (byte) 0xff}, Converter.hexToBytes("0x007f80ff"));
+        assertArrayEquals(new byte[]{(byte) 0xab, (byte) 0xcd}, Converter.hexToBytes("0xABcd"));
+
+        var bytes = payload(256);
+        assertArrayEquals(bytes, Converter.hexToBytes("0x" + Converter.bytesToHex(bytes)));
+    }
+
+    @Test
+    void hexToBytesInvalid() {
+        String[] invalid = {null, "", "abcd", "0x1", "0x123", "0xzz", "0x0g", "0x+f", "0x-1", "0x\u0661\u0662"};
+        for (String value : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> Converter.hexToBytes(value));
+        }
+    }
+
+    @Test
+    void toInteger() {
+        assertEquals(BigInteger.ZERO, Converter.toInteger("0x0"));
+        assertEquals(BigInteger.valueOf(0x19), Converter.toInteger("0x19"));
+        assertEquals(BigInteger.valueOf(-0xabc), Converter.toInteger("-0xABC"));
+        assertEquals(BigInteger.valueOf(0x7fffffffffffffffL), Converter.toInteger("0x7fffffffffffffff"));
+        assertEquals(new BigInteger("fffffffffffffffff", 16), Converter.toInteger("0xfffffffffffffffff"));
+        assertEquals(new BigInteger("-123456789abcdef0123456789", 16),
+                Converter.toInteger("-0x123456789abcdef0123456789"));
+        assertEquals(BigInteger.ZERO, Converter.toInteger("-0x00000000000000000000"));
+        assertEquals(new BigInteger("1000000000000000000000"), Converter.toInteger("1000000000000000000000"));
+    }
+
+    // number literals of legacy proposals, which lose precision if they are read as double
+    @Test
+    void toIntegerJson() {
+        assertEquals(BigInteger.ZERO, Converter.toInteger((JsonValue) null));
+        assertEquals(BigInteger.valueOf(4200), Converter.toInteger(Json.parse("4200")));
+        var amount = new BigInteger("123456789012345678901234567");
+        assertEquals(amount, Converter.toInteger(Json.parse(amount.toString())));
+        assertEquals(BigInteger.valueOf(9007199254740993L), Converter.toInteger(Json.parse("9007199254740993")));
+    }
+
+    @Test
+    void toIntegerInvalid() {
+        String[] invalid = {"0x", "-0x", "0x-1", "0x1g", "0xfffffffffffffffffz", "0x 1"};
+        for (String value : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> Converter.toInteger(value));
+        }
+    }
+
+    // decodes a payload of the size of a large SCORE jar as the reference decoder does
+    @Test
+    void hexToBytesLargePayload() {
+        var bytes = payload(LARGE_PAYLOAD_SIZE);
+        var hex = "0x" + Converter.bytesToHex(bytes);
+        assertArrayEquals(referenceHexToBytes(hex), Converter.hexToBytes(hex));
+        assertArrayEquals(bytes, Converter.hexToBytes(hex));
+        assertArrayEquals(bytes, Converter.hexToBytes(hex.toUpperCase().replace("0X", "0x")));
+    }
+}
@@ -27,13 +27,21 @@ import com.iconloop.score.test.TestBase;
 import foundation.icon.governance.mock.ChainScore;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import score.Address;
 import score.RevertedException;
 import score.UserRevertedException;
 
 import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -42,6 +50,10 @@ public class GovernanceTest extends TestBase {
     private static final ServiceManager sm = getServiceManager();
     private static final Account owner = sm.createAccount(10000);
     private static final Account alice = sm.createAccount(1000);
+    // same as Governance.TIMER_BATCH_SIZE
+    private static final int TIMER_BATCH_SIZE = 20;
+    private static final ChainScore chainScoreMock = new ChainScore();
+    private static Score chainScore;
     private static Score govScore;
 
     private static final Map<String, String> validProposals = Map.ofEntries(
@@ -67,7 +79,7 @@ public class GovernanceTest extends TestBase {
     @BeforeAll
     public static void setup() throws Exception {
         // install ChainScore mock
-        sm.deploy(ChainScore.ADDRESS, owner, new ChainScore());
+        chainScore = sm.deploy(ChainScore.ADDRESS, owner, chainScoreMock);
         // then deploy gov score
         govScore = sm.deploy(owner, Governance.class);
     }
@@ -87,6 +99,85 @@ public class GovernanceTest extends TestBase {
         return sm.getBlock().hashOfTransactionAt(0);
     }
 
+    byte[] registerTextProposal(Score score) {
+        score.invoke(owner, ONE_HUNDRED.multiply(ICX),
+                "registerProposal", "Text", "text proposal", validProposals.get("Text").getBytes());
+        return sm.getBlock().hashOfTransactionAt(0);
+    }
+
+    // registers text proposals whose timer is at timerHeight
+    List<byte[]> registerProposals(Account proposer, BigInteger timerHeight, int count) {
+        chainScoreMock.setPRepTerm(BigInteger.ZERO, timerHeight.subtract(BigInteger.ONE));
+        try {
+            var ids = new ArrayList<byte[]>();
+            for (int i = 0; i < count; i++) {
+                govScore.invoke(proposer, ONE_HUNDRED.multiply(ICX),
+                        "registerProposal", "Text", "timer test proposal", validProposals.get("Text").getBytes());
+                ids.add(sm.getBlock().hashOfTransactionAt(0));
+            }
+            return ids;
+        } finally {
+            chainScoreMock.setPRepTerm(BigInteger.valueOf(1000), BigInteger.valueOf(200));
+        }
+    }
+
+    // fires the timer at the height, and returns the number of proposals disapproved by it
+    int fireTimer(BigInteger height) {
+        var before = countDisapproved();
+        var delta = height.longValue() - sm.getBlock().getHeight() - 1;
+        if (delta > 0) {
+            sm.getBlock().increase(delta);
+        }
+        chainScore.invoke(owner, "fireTimer", govScore.getAddress());
+        return countDisapproved() - before;
+    }
+
+    @SuppressWarnings("unchecked")
+    int countDisapproved() {
+        var stats = (Map<String, Object>) govScore.call("getGovernanceStats");
+        return (int) ((List<Object>) stats.get("statusCounts")).get(NetworkProposal.DISAPPROVED_STATUS);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<byte[]> getProposalIds(Score score, int status, int size) {
+        var result = (Map<String, Object>) score.call("getProposals",
+                BigInteger.ZERO, BigInteger.valueOf(status), BigInteger.ZERO, BigInteger.valueOf(size), BigInteger.ZERO);
+        var ids = new ArrayList<byte[]>();
+        for (Object o : (List<Object>) result.get("proposals")) {
+            ids.add((byte[]) ((Map<String, Object>) o).get("id"));
+        }
+        return ids;
+    }
+
+    static byte[] legacyId(int n) {
+        var id = new byte[32];
+        id[31] = (byte) n;
+        return id;
+    }
+
+    // text proposal in the JSON format of Python version, which none of the main preps voted for
+    static String legacyJson(byte[] id, Account proposer, long startHeight, long endHeight) {
+        return "{\"id\":\"" + Converter.bytesToHex(id) + "\",\"proposer\":\"" + proposer.getAddress() + "\"," +
+                "\"proposer_name\":\"legacy\",\"title\":\"legacy proposal\",\"description\":\"legacy proposal\"," +
+                "\"type\":0,\"value\":{\"value\":\"legacy\"}," +
+                "\"start_block_height\":" + startHeight + ",\"end_block_height\":" + endHeight + ",\"status\":0," +
+                "\"vote\":{\"agree\":{\"list\":[],\"amount\":0},\"disagree\":{\"list\":[],\"amount\":0}," +
+                "\"noVote\":{\"list\":[\"hx0000000000000000000000000000000000000100\"," +
+                "\"hx0000000000000000000000000000000000000101\"],\"amount\":3000000}}," +
+                "\"total_voter\":2,\"total_delegated_amount\":3000000}";
+    }
+
+    @SuppressWarnings("unchecked")
+    void assertSameProposal(Map<String, Object> expected, Map<String, Object> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        assertArrayEquals((byte[]) expected.get("id"), (byte[]) actual.get("id"));
+        for (String key : expected.keySet()) {
+            if (!key.equals("id")) {
+                assertEquals(expected.get(key), actual.get(key));
+            }
+        }
+    }
+
     @Test
     void registerProposal() {
         for (String key : validProposals.keySet()) {
@@ -94,6 +185,80 @@ public class GovernanceTest extends TestBase {
         }
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    void addRemoveAuditor() {
+        var auditor = sm.createAccount(100);
+        govScore.invoke(owner, "addAuditor", auditor.getAddress());
+        assertTrue(((List<Address>) govScore.call("getAuditors")).contains(auditor.getAddress()));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(owner, "addAuditor", auditor.getAddress()));
+
+        var other = sm.createAccount(100);
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(owner, "removeAuditor", other.getAddress()));
+        assertTrue(((List<Address>) govScore.call("getAuditors")).contains(auditor.getAddress()));
+
+        govScore.invoke(owner, "removeAuditor", auditor.getAddress());
+        assertFalse(((List<Address>) govScore.call("getAuditors")).contains(auditor.getAddress()));
+    }
+
+    @Test
+    void legacyAuditors() throws Exception {
+        var legacy = sm.deploy(owner, LegacyGovernance.class);
+        var auditors = new Account[]{sm.createAccount(100), sm.createAccount(100)};
+        for (Account auditor : auditors) {
+            legacy.invoke(owner, "addLegacyAuditor", auditor.getAddress());
+        }
+        // auditors added before the index are indexed on the update
+        legacy.invoke(owner, "update");
+        var txHashes = new byte[][]{new byte[32]};
+        for (Account auditor : auditors) {
+            assertDoesNotThrow(() -> legacy.invoke(auditor, "acceptScores", (Object) txHashes));
+        }
+        assertThrows(UserRevertedException.class, () ->
+                legacy.invoke(owner, "addAuditor", auditors[1].getAddress()));
+
+        legacy.invoke(owner, "removeAuditor", auditors[0].getAddress());
+        assertThrows(UserRevertedException.class, () ->
+                legacy.invoke(auditors[0], "acceptScores", (Object) txHashes));
+        assertDoesNotThrow(() -> legacy.invoke(auditors[1], "acceptScores", (Object) txHashes));
+        assertEquals(List.of(auditors[1].getAddress()), legacy.call("getAuditors"));
+    }
+
+    @Test
+    void acceptRejectScores() {
+        var auditor = sm.createAccount(100);
+        var txHashes = new byte[][]{new byte[32], new byte[32]};
+        txHashes[1][0] = 1;
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(auditor, "acceptScores", (Object) txHashes));
+
+        govScore.invoke(owner, "addAuditor", auditor.getAddress());
+        assertDoesNotThrow(() ->
+                govScore.invoke(auditor, "acceptScores", (Object) txHashes));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(auditor, "rejectScores", txHashes, new String[]{"invalid"}));
+        assertDoesNotThrow(() ->
+                govScore.invoke(auditor, "rejectScores", txHashes, new String[]{"invalid", "duplicated"}));
+        govScore.invoke(owner, "removeAuditor", auditor.getAddress());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void blockedScores() {
+        var result = (Map<String, Object>) govScore.call("getBlockedScores", BigInteger.ZERO, BigInteger.ZERO);
+        assertEquals(List.of(ChainScore.BLOCKED_SCORE), result.get("scores"));
+
+        govScore.invoke(owner, "seedBlockedScores");
+        assertThrows(UserRevertedException.class, () -> govScore.invoke(owner, "seedBlockedScores"));
+        assertTrue((Boolean) govScore.call("isInScoreBlackList", ChainScore.BLOCKED_SCORE));
+        assertFalse((Boolean) govScore.call("isInScoreBlackList", ChainScore.GOV_ADDRESS));
+        result = (Map<String, Object>) govScore.call("getBlockedScores", BigInteger.ZERO, BigInteger.ONE);
+        assertEquals(List.of(ChainScore.BLOCKED_SCORE), result.get("scores"));
+        assertFalse(result.containsKey("next"));
+    }
+
     @Test
     void voteProposal() {
         // registerProposal first
@@ -117,6 +282,270 @@ public class GovernanceTest extends TestBase {
                 govScore.invoke(alice, "applyProposal", (Object) id));
     }
 
+    @Test
+    void voteProposalNotInElectorate() {
+        var id = registerProposal("Text");
+        var bob = sm.createAccount(100);
+        var reverted = assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(bob, "voteProposal", id, 1));
+        assertTrue(reverted.getMessage().contains("No permission"));
+        // applyProposal is only for voted preps
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(bob, "applyProposal", (Object) id));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalVotes() {
+        var id = registerProposal("Text");
+        govScore.invoke(owner, "voteProposal", id, 1);
+
+        var proposal = (Map<String, Object>) govScore.call("getProposal", id, false);
+        var vote = (Map<String, Map<String, Object>>) proposal.get("vote");
+        assertEquals(1, ((Object[]) vote.get("agree").get("list")).length);
+        assertEquals(0, ((Object[]) vote.get("disagree").get("list")).length);
+        assertEquals(1, ((List<Object>) vote.get("noVote").get("list")).size());
+
+        govScore.invoke(alice, "voteProposal", id, 0);
+        proposal = (Map<String, Object>) govScore.call("getProposal", id, false);
+        vote = (Map<String, Map<String, Object>>) proposal.get("vote");
+        assertEquals(1, ((Object[]) vote.get("disagree").get("list")).length);
+        assertEquals(0, ((List<Object>) vote.get("noVote").get("list")).size());
+        assertEquals(NetworkProposal.DISAPPROVED_STATUS, proposal.get("status"));
+
+        proposal = (Map<String, Object>) govScore.call("getProposal", id, true);
+        vote = (Map<String, Map<String, Object>>) proposal.get("vote");
+        assertEquals(1, vote.get("agree").get("count"));
+        assertFalse(vote.get("agree").containsKey("list"));
+
+        var votes = (Map<String, Object>) govScore.call("getProposalVotes",
+                id, NetworkProposal.VOTES_DISAGREE, BigInteger.ZERO, BigInteger.ONE);
+        assertEquals(1, votes.get("count"));
+        assertEquals(1, ((List<Object>) votes.get("list")).size());
+        assertFalse(votes.containsKey("next"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalsByStatus() {
+        var id = registerProposal("Text");
+        govScore.invoke(owner, "cancelProposal", (Object) id);
+        registerProposal("Text");
+
+        var canceled = BigInteger.valueOf(NetworkProposal.CANCELED_STATUS);
+        var result = (Map<String, Object>) govScore.call("getProposals",
+                BigInteger.ZERO, canceled, BigInteger.ZERO, BigInteger.ONE, BigInteger.ZERO);
+        var proposals = (List<Object>) result.get("proposals");
+        assertEquals(1, proposals.size());
+        var proposal = (Map<String, Object>) proposals.get(0);
+        assertArrayEquals(id, (byte[]) proposal.get("id"));
+        assertEquals(NetworkProposal.CANCELED_STATUS, proposal.get("status"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalsWithCursor() {
+        for (int i = 0; i < 3; i++) {
+            registerProposal("Text");
+        }
+        var all = (Map<String, Object>) govScore.call("getProposals",
+                BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO, BigInteger.valueOf(3), BigInteger.ZERO);
+        var expected = (List<Object>) all.get("proposals");
+
+        var cursor = BigInteger.ZERO;
+        for (int i = 0; i < 3; i++) {
+            var page = (Map<String, Object>) govScore.call("getProposals",
+                    BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO, BigInteger.ONE, cursor);
+            var proposals = (List<Object>) page.get("proposals");
+            assertEquals(1, proposals.size());
+            assertArrayEquals((byte[]) ((Map<String, Object>) expected.get(i)).get("id"),
+                    (byte[]) ((Map<String, Object>) proposals.get(0)).get("id"));
+            cursor = (BigInteger) page.get("next");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalsByProposer() {
+        var first = registerProposal("Text");
+        var second = registerProposal("Text");
+
+        var result = (Map<String, Object>) govScore.call("getProposalsByProposer",
+                owner.getAddress(), BigInteger.ZERO, BigInteger.ONE);
+        var proposals = (List<Object>) result.get("proposals");
+        assertEquals(1, proposals.size());
+        assertArrayEquals(second, (byte[]) ((Map<String, Object>) proposals.get(0)).get("id"));
+
+        result = (Map<String, Object>) govScore.call("getProposalsByProposer",
+                owner.getAddress(), BigInteger.valueOf((int) result.get("next")), BigInteger.ONE);
+        proposals = (List<Object>) result.get("proposals");
+        assertArrayEquals(first, (byte[]) ((Map<String, Object>) proposals.get(0)).get("id"));
+
+        result = (Map<String, Object>) govScore.call("getProposalsByProposer",
+                alice.getAddress(), BigInteger.ZERO, BigInteger.ONE);
+        assertEquals(0, ((List<Object>) result.get("proposals")).size());
+    }
+
+    boolean isPendingVote(Account prep, byte[] id) {
+        return isPendingVote(govScore, prep, id);
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean isPendingVote(Score score, Account prep, byte[] id) {
+        var result = (Map<String, Object>) score.call("getPendingVotes", prep.getAddress());
+        for (Object o : (List<Object>) result.get("proposals")) {
+            if (Arrays.equals(id, (byte[]) ((Map<String, Object>) o).get("id"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void getPendingVotes() {
+        var voted = registerProposal("Text");
+        var canceled = registerProposal("Text");
+        assertTrue(isPendingVote(owner, voted));
+        assertTrue(isPendingVote(alice, voted));
+
+        govScore.invoke(owner, "voteProposal", voted, 1);
+        assertFalse(isPendingVote(owner, voted));
+        assertTrue(isPendingVote(alice, voted));
+
+        govScore.invoke(owner, "cancelProposal", (Object) canceled);
+        assertFalse(isPendingVote(alice, canceled));
+    }
+
+    @Test
+    void getPendingVotesOfLegacyProposals() throws Exception {
+        var legacy = sm.deploy(owner, LegacyGovernance.class);
+        var height = sm.getBlock().getHeight();
+        var open = legacyId(1);
+        var expired = legacyId(2);
+        // the later one expires earlier, as the voting period depends on the term at registration
+        legacy.invoke(owner, "addRecordProposal", open, legacyJson(open, alice, height, height + 1000));
+        legacy.invoke(owner, "addRecordProposal", expired, legacyJson(expired, alice, height, height));
+        assertTrue(isPendingVote(legacy, owner, open));
+        assertFalse(isPendingVote(legacy, owner, expired));
+
+        // open proposals are seeded into the index on the first registration
+        legacy.invoke(owner, ONE_HUNDRED.multiply(ICX), "registerProposal",
+                "Text", "proposal after update", validProposals.get("Text").getBytes());
+        assertTrue(isPendingVote(legacy, owner, open));
+        assertTrue(isPendingVote(legacy, owner, sm.getBlock().hashOfTransactionAt(0)));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void uploadContent() throws Exception {
+        var content = "networkScoreUpdate content".getBytes();
+        var hash = MessageDigest.getInstance("SHA3-256").digest(content);
+        govScore.invoke(owner, "uploadContent", hash, 0, Arrays.copyOfRange(content, 0, 10));
+        govScore.invoke(owner, "uploadContent", hash, 1, Arrays.copyOfRange(content, 10, content.length));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(owner, "uploadContent", hash, 3, content));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(alice, "uploadContent", hash, 2, content));
+
+        // an unfinished upload of another prep doesn't block the content
+        govScore.invoke(alice, "uploadContent", hash, 0, Arrays.copyOfRange(content, 0, 10));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(alice, "sealContent", (Object) hash));
+
+        var info = (Map<String, Object>) govScore.call("getContentInfo", hash, owner.getAddress());
+        assertEquals(2, info.get("chunks"));
+        assertEquals(content.length, info.get("size"));
+        assertEquals(false, info.get("sealed"));
+
+        govScore.invoke(owner, "sealContent", (Object) hash);
+        info = (Map<String, Object>) govScore.call("getContentInfo", hash, null);
+        assertEquals(owner.getAddress(), info.get("uploader"));
+        assertEquals(true, info.get("sealed"));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(owner, "uploadContent", hash, 0, content));
+        assertThrows(UserRevertedException.class, () ->
+                govScore.invoke(owner, "discardContent", (Object) hash));
+
+        govScore.invoke(alice, "discardContent", (Object) hash);
+        assertThrows(UserRevertedException.class, () ->
+                govScore.call("getContentInfo", hash, alice.getAddress()));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void purgeContent() throws Exception {
+        var content = "content to purge".getBytes();
+        var hash = MessageDigest.getInstance("SHA3-256").digest(content);
+        govScore.invoke(alice, "uploadContent", hash, 0, Arrays.copyOfRange(content, 0, 5));
+        govScore.invoke(owner, "uploadContent", hash, 0, content);
+        govScore.invoke(owner, "sealContent", (Object) hash);
+        var value = "[{\"name\":\"networkScoreUpdate\",\"value\":{\"address\":\"cx0000000000000000000000000000000000000000\"," +
+                "\"contentHash\":\"0x" + Converter.bytesToHex(hash) + "\"}}]";
+        var id = registerProposal("NetworkScoreUpdate", Map.of("NetworkScoreUpdate", value));
+        var info = (Map<String, Object>) govScore.call("getContentInfo", hash, null);
+        assertEquals(1, info.get("references"));
+
+        assertThrows(UserRevertedException.class, () -> govScore.invoke(alice, "purgeContent", hash, null));
+        // the sealed content stays while an open proposal refers to it, but stale uploads can be purged
+        assertThrows(UserRevertedException.class, () -> govScore.invoke(owner, "purgeContent", hash, null));
+        govScore.invoke(owner, "purgeContent", hash, alice.getAddress());
+        assertThrows(UserRevertedException.class, () ->
+                govScore.call("getContentInfo", hash, alice.getAddress()));
+
+        govScore.invoke(owner, "cancelProposal", (Object) id);
+        info = (Map<String, Object>) govScore.call("getContentInfo", hash, null);
+        assertEquals(0, info.get("references"));
+        govScore.invoke(owner, "purgeContent", hash, null);
+        assertThrows(UserRevertedException.class, () -> govScore.call("getContentInfo", hash, null));
+        // the content can be uploaded again
+        assertDoesNotThrow(() -> govScore.invoke(owner, "uploadContent", hash, 0, content));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getGovernanceStats() {
+        var before = (Map<String, Object>) govScore.call("getGovernanceStats");
+        var voted = registerProposal("Text");
+        var canceled = registerProposal("Text");
+        govScore.invoke(owner, "voteProposal", voted, 1);
+        govScore.invoke(owner, "cancelProposal", (Object) canceled);
+
+        var after = (Map<String, Object>) govScore.call("getGovernanceStats");
+        var typeCounts = (List<Object>) after.get("typeCounts");
+        assertEquals((int) ((List<Object>) before.get("typeCounts")).get(Proposal.NETWORK_PROPOSAL) + 2,
+                typeCounts.get(Proposal.NETWORK_PROPOSAL));
+        var statusCounts = (List<Object>) after.get("statusCounts");
+        assertEquals((int) ((List<Object>) before.get("statusCounts")).get(NetworkProposal.CANCELED_STATUS) + 1,
+                statusCounts.get(NetworkProposal.CANCELED_STATUS));
+        var actionCounts = (Map<String, Object>) after.get("actionCounts");
+        assertEquals((int) ((Map<String, Object>) before.get("actionCounts")).get(Value.TEXT_TYPE) + 2,
+                actionCounts.get(Value.TEXT_TYPE));
+        assertEquals((int) before.get("votes") + 1, after.get("votes"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalsByIds() {
+        var first = registerProposal("Text");
+        var second = registerProposal("Text");
+        var ids = new byte[][]{second, first};
+
+        var result = (Map<String, Object>) govScore.call("getProposalsByIds", ids, false);
+        var proposals = (List<Object>) result.get("proposals");
+        assertEquals(2, proposals.size());
+        for (int i = 0; i < ids.length; i++) {
+            var proposal = (Map<String, Object>) proposals.get(i);
+            assertArrayEquals(ids[i], (byte[]) proposal.get("id"));
+            assertTrue(((Map<String, Object>) proposal.get("contents")).containsKey("value"));
+        }
+
+        result = (Map<String, Object>) govScore.call("getProposalsByIds", ids, true);
+        proposals = (List<Object>) result.get("proposals");
+        var summary = (Map<String, Object>) proposals.get(1);
+        assertArrayEquals(first, (byte[]) summary.get("id"));
+        assertFalse(((Map<String, Object>) summary.get("contents")).containsKey("value"));
+    }
+
     @Test
     void validateProposalsNegative() {
         String[] invalid = new String[]{
@@ -129,7 +558,8 @@ public class GovernanceTest extends TestBase {
         for (String test: invalid) {
             JsonValue json = Json.parse(test);
             JsonArray values = json.asArray();
-            assertThrows(ManualRevertException.class, () -> gov.validateProposals(values));
+            assertThrows(ManualRevertException.class, () ->
+                    gov.validateProposals(values, new foundation.icon.governance.ChainScore.Cache()));
         }
     }
 
@@ -146,4 +576,312 @@ public class GovernanceTest extends TestBase {
             }
         }
     }
+
+    @Test
+    void onTimerResumesBatch() {
+        var proposer = sm.createAccount(3000);
+        var timerHeight = BigInteger.valueOf(sm.getBlock().getHeight() + 100);
+        registerProposals(proposer, timerHeight, TIMER_BATCH_SIZE + 5);
+        assertTrue(chainScoreMock.hasTimer(timerHeight));
+
+        assertEquals(TIMER_BATCH_SIZE, fireTimer(timerHeight));
+        var next = timerHeight.add(BigInteger.ONE);
+        assertTrue(chainScoreMock.hasTimer(next));
+        assertEquals(5, fireTimer(next));
+        assertFalse(chainScoreMock.hasTimer(next.add(BigInteger.ONE)));
+
+        // canceling the only proposal of a bucket removes its timer once no resumption is pending
+        var later = next.add(BigInteger.valueOf(100));
+        var id = registerProposals(proposer, later, 1).get(0);
+        govScore.invoke(proposer, "cancelProposal", (Object) id);
+        assertFalse(chainScoreMock.hasTimer(later));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void onTimerCancelDuringResumption() {
+        var proposer = sm.createAccount(3000);
+        var timerHeight = BigInteger.valueOf(sm.getBlock().getHeight() + 100);
+        var later = timerHeight.add(BigInteger.valueOf(10));
+        registerProposals(proposer, timerHeight, TIMER_BATCH_SIZE + 1);
+        var id = registerProposals(proposer, later, 1).get(0);
+
+        assertEquals(TIMER_BATCH_SIZE, fireTimer(timerHeight));
+        // canceling the last proposal of a bucket removes its timer, but not the one armed for the resumption
+        govScore.invoke(proposer, "cancelProposal", (Object) id);
+        assertFalse(chainScoreMock.hasTimer(later));
+        assertTrue(chainScoreMock.hasTimer(timerHeight.add(BigInteger.ONE)));
+
+        assertEquals(1, fireTimer(timerHeight.add(BigInteger.valueOf(2))));
+        assertEquals(0, fireTimer(later));
+        var proposal = (Map<String, Object>) govScore.call("getProposal", id, false);
+        assertEquals(NetworkProposal.CANCELED_STATUS, proposal.get("status"));
+    }
+
+    @Test
+    void onTimerLaterBucketDuringResumption() {
+        var proposer = sm.createAccount(3000);
+        var timerHeight = BigInteger.valueOf(sm.getBlock().getHeight() + 100);
+        var next = timerHeight.add(BigInteger.ONE);
+        registerProposals(proposer, timerHeight, TIMER_BATCH_SIZE + 1);
+        registerProposals(proposer, next, 2);
+
+        assertEquals(TIMER_BATCH_SIZE, fireTimer(timerHeight));
+        // the rest of the first bucket and the later one are processed in a call
+        assertEquals(3, fireTimer(next));
+        assertFalse(chainScoreMock.hasTimer(next.add(BigInteger.ONE)));
+    }
+
+    @Test
+    void applyProposalThroughActionPlan() {
+        var value = "[{\"name\":\"stepCosts\",\"value\":{\"costs\":{\"default\":\"0x186a0\",\"set\":\"0x140\"}}}," +
+                "{\"name\":\"call\",\"value\":{\"to\":\"cx0000000000000000000000000000000000000000\"," +
+                "\"method\":\"testStructCall\",\"params\":[{\"fields\":{\"address\":\"Address\",\"value\":\"int\"}," +
+                "\"type\":\"struct\",\"value\":{\"address\":\"hx0000000000000000000000000000000000000101\",\"value\":\"0x2a\"}}]}}]";
+        var id = registerProposal("StepCostsAndCall", Map.of("StepCostsAndCall", value));
+        govScore.invoke(owner, "voteProposal", id, 1);
+        govScore.invoke(alice, "voteProposal", id, 1);
+        govScore.invoke(owner, "applyProposal", (Object) id);
+
+        assertEquals(BigInteger.valueOf(0x186a0), chainScoreMock.stepCostOf("default"));
+        assertEquals(BigInteger.valueOf(0x140), chainScoreMock.stepCostOf("set"));
+        var delegation = chainScoreMock.getLastDelegation();
+        assertEquals(Address.fromString("hx0000000000000000000000000000000000000101"), delegation.getAddress());
+        assertEquals(BigInteger.valueOf(0x2a), delegation.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalsBeforeStatusSettled() {
+        var proposer = sm.createAccount(3000);
+        var timerHeight = BigInteger.valueOf(sm.getBlock().getHeight() + 100);
+        var ids = registerProposals(proposer, timerHeight, TIMER_BATCH_SIZE + 1);
+        var last = ids.get(TIMER_BATCH_SIZE);
+
+        assertEquals(TIMER_BATCH_SIZE, fireTimer(timerHeight));
+        // the last one is over its voting period, but it's not listed as disapproved until the timer settles it
+        var proposal = (Map<String, Object>) govScore.call("getProposal", last, false);
+        assertEquals(NetworkProposal.DISAPPROVED_STATUS, proposal.get("status"));
+        assertArrayEquals(ids.get(TIMER_BATCH_SIZE - 1),
+                getProposalIds(govScore, NetworkProposal.DISAPPROVED_STATUS, 1).get(0));
+
+        assertEquals(1, fireTimer(timerHeight.add(BigInteger.ONE)));
+        assertArrayEquals(last, getProposalIds(govScore, NetworkProposal.DISAPPROVED_STATUS, 1).get(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void indexLegacyProposals() throws Exception {
+        var legacy = sm.deploy(owner, LegacyGovernance.class);
+        var height = sm.getBlock().getHeight();
+        // the status of the first three is kept as voting, though their voting period is over
+        var ids = new byte[][]{legacyId(1), legacyId(2), legacyId(3), legacyId(4)};
+        legacy.invoke(owner, "addJsonProposal", ids[0], legacyJson(ids[0], alice, 1, 10));
+        legacy.invoke(owner, "addJsonProposal", ids[1], legacyJson(ids[1], alice, 1, 10));
+        legacy.invoke(owner, "addRecordProposal", ids[2], legacyJson(ids[2], alice, 1, 10));
+        legacy.invoke(owner, "addRecordProposal", ids[3], legacyJson(ids[3], alice, height, height + 1000));
+
+        assertThrows(UserRevertedException.class, () -> legacy.invoke(alice, "indexLegacyProposals", 3));
+        legacy.invoke(owner, "indexLegacyProposals", 3);
+        var status = (Map<String, Object>) legacy.call("getLegacyMigrationStatus");
+        assertEquals(3, status.get("indexed"));
+        assertEquals(4, status.get("indexTotal"));
+        var result = (Map<String, Object>) legacy.call("getProposalsByProposer",
+                alice.getAddress(), BigInteger.ZERO, BigInteger.TEN);
+        assertEquals(3, ((List<Object>) result.get("proposals")).size());
+
+        // it resumes from the cursor, and stays at the end once all are indexed
+        legacy.invoke(owner, "indexLegacyProposals", 3);
+        legacy.invoke(owner, "indexLegacyProposals", 3);
+        status = (Map<String, Object>) legacy.call("getLegacyMigrationStatus");
+        assertEquals(4, status.get("indexed"));
+        assertEquals(4, status.get("indexTotal"));
+
+        var disapproved = getProposalIds(legacy, NetworkProposal.DISAPPROVED_STATUS, 10);
+        assertEquals(3, disapproved.size());
+        for (int i = 0; i < disapproved.size(); i++) {
+            assertArrayEquals(ids[2 - i], disapproved.get(i));
+        }
+        result = (Map<String, Object>) legacy.call("getProposalsByProposer",
+                alice.getAddress(), BigInteger.ZERO, BigInteger.TEN);
+        var proposals = (List<Object>) result.get("proposals");
+        assertEquals(4, proposals.size());
+        assertArrayEquals(ids[3], (byte[]) ((Map<String, Object>) proposals.get(0)).get("id"));
+        var stats = (Map<String, Object>) legacy.call("getGovernanceStats");
+        assertEquals(3, ((List<Object>) stats.get("statusCounts")).get(NetworkProposal.DISAPPROVED_STATUS));
+        assertEquals(1, ((List<Object>) stats.get("statusCounts")).get(NetworkProposal.VOTING_STATUS));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void migrateLegacyProposals() throws Exception {
+        var legacy = sm.deploy(owner, LegacyGovernance.class);
+        var height = sm.getBlock().getHeight();
+        var ids = new byte[5][];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = legacyId(i + 1);
+            var endHeight = i < 3 ? 10 : height + 1000;
+            legacy.invoke(owner, "addJsonProposal", ids[i], legacyJson(ids[i], alice, 1, endHeight));
+        }
+        // control paths read the header of a legacy proposal before it's migrated
+        legacy.invoke(alice, "cancelProposal", (Object) ids[3]);
+        var before = new ArrayList<Map<String, Object>>();
+        for (byte[] id : ids) {
+            before.add((Map<String, Object>) legacy.call("getProposal", id, true));
+        }
+        assertEquals(NetworkProposal.CANCELED_STATUS, before.get(3).get("status"));
+
+        for (int migrated : new int[]{2, 4, 5, 5}) {
+            legacy.invoke(owner, "migrateLegacyProposals", 2);
+            var status = (Map<String, Object>) legacy.call("getLegacyMigrationStatus");
+            assertEquals(migrated, status.get("migrated"));
+            assertEquals(ids.length, status.get("total"));
+        }
+        for (int i = 0; i < ids.length; i++) {
+            assertSameProposal(before.get(i), (Map<String, Object>) legacy.call("getProposal", ids[i], true));
+        }
+        var proposal = (Map<String, Object>) legacy.call("getProposal", ids[0], false);
+        assertEquals("legacy", ((Map<String, Object>) ((Map<String, Object>) proposal.get("contents"))
+                .get("value")).get("text"));
+
+        // and after the migration
+        legacy.invoke(alice, "cancelProposal", (Object) ids[4]);
+        proposal = (Map<String, Object>) legacy.call("getProposal", ids[4], true);
+        assertEquals(NetworkProposal.CANCELED_STATUS, proposal.get("status"));
+
+        // the cursor walks the new proposals and then the legacy ones
+        var registered = new byte[2][];
+        for (int i = 0; i < registered.length; i++) {
+            legacy.invoke(owner, ONE_HUNDRED.multiply(ICX), "registerProposal",
+                    "Text", "proposal after migration", validProposals.get("Text").getBytes());
+            registered[i] = sm.getBlock().hashOfTransactionAt(0);
+        }
+        var expected = new byte[][]{registered[1], registered[0], ids[4], ids[3], ids[2], ids[1], ids[0]};
+        var cursor = BigInteger.ZERO;
+        var walked = new ArrayList<byte[]>();
+        do {
+            var page = (Map<String, Object>) legacy.call("getProposals",
+                    BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO, BigInteger.TWO, cursor);
+            for (Object o : (List<Object>) page.get("proposals")) {
+                walked.add((byte[]) ((Map<String, Object>) o).get("id"));
+            }
+            cursor = (BigInteger) page.get("next");
+        } while (cursor != null);
+        assertEquals(expected.length, walked.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], walked.get(i));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void getProposalLoadsBody() {
+        var id = registerProposal("Text");
+        govScore.invoke(owner, "voteProposal", id, 1);
+        // control paths read the header, and the body is kept as registered
+        govScore.invoke(owner, "cancelProposal", (Object) id);
+
+        var proposal = (Map<String, Object>) govScore.call("getProposal", id, false);
+        assertEquals(NetworkProposal.CANCELED_STATUS, proposal.get("status"));
+        assertEquals(owner.getAddress(), proposal.get("proposer"));
+        var contents = (Map<String, Object>) proposal.get("contents");
+        assertEquals("Text", contents.get("title"));
+        assertEquals("test proposal for Text", contents.get("description"));
+        assertTrue(contents.containsKey("value"));
+        var vote = (Map<String, Map<String, Object>>) proposal.get("vote");
+        assertEquals(1, ((Object[]) vote.get("agree").get("list")).length);
+        assertEquals(1, ((List<Object>) vote.get("noVote").get("list")).size());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void voteSingleRecordProposal() throws Exception {
+        var legacy = sm.deploy(owner, LegacyGovernance.class);
+        var height = sm.getBlock().getHeight();
+        var id = legacyId(1);
+        legacy.invoke(owner, "addRecordProposal", id, legacyJson(id, alice, height, height + 1000));
+        var proposal = (Map<String, Object>) legacy.call("getProposal", id, false);
+        assertEquals("legacy proposal", ((Map<String, Object>) proposal.get("contents")).get("title"));
+        assertEquals(NetworkProposal.VOTING_STATUS, proposal.get("status"));
+
+        legacy.invoke(owner, "voteProposal", id, 1);
+        proposal = (Map<String, Object>) legacy.call("getProposal", id, false);
+        assertEquals("legacy proposal", ((Map<String, Object>) proposal.get("contents")).get("title"));
+        var vote = (Map<String, Map<String, Object>>) proposal.get("vote");
+        assertEquals(1, ((Object[]) vote.get("agree").get("list")).length);
+        assertEquals(List.of(alice.getAddress()), vote.get("noVote").get("list"));
+    }
+
+    @Test
+    void electorateSnapshot() throws Exception {
+        var legacy = sm.deploy(owner, LegacyGovernance.class);
+        var first = registerTextProposal(legacy);
+        var second = registerTextProposal(legacy);
+        assertArrayEquals((byte[]) legacy.call("getElectorateId", first),
+                (byte[]) legacy.call("getElectorateId", second));
+
+        var bob = sm.createAccount(100);
+        chainScoreMock.addMainPRep(bob.getAddress());
+        try {
+            var third = registerTextProposal(legacy);
+            assertFalse(Arrays.equals((byte[]) legacy.call("getElectorateId", first),
+                    (byte[]) legacy.call("getElectorateId", third)));
+            legacy.invoke(bob, "voteProposal", third, 1);
+            assertThrows(UserRevertedException.class, () -> legacy.invoke(bob, "voteProposal", first, 1));
+        } finally {
+            chainScoreMock.removeMainPRep(bob.getAddress());
+        }
+    }
+
+    @Test
+    void validateProposalsReadsChainPerCall() {
+        assertDoesNotThrow(() -> registerProposal("Revision"));
+        // the chain values are cached in a call only, so the next one sees the new revision
+        chainScoreMock.setRevision(BigInteger.valueOf(0x15));
+        try {
+            var reverted = assertThrows(UserRevertedException.class, () -> registerProposal("Revision"));
+            assertTrue(reverted.getMessage().contains("can not decrease revision"));
+        } finally {
+            chainScoreMock.setRevision(BigInteger.valueOf(20));
+        }
+    }
+
+    @Test
+    void onTimerPenalizesOnce() {
+        var proposer = sm.createAccount(3000);
+        var timerHeight = BigInteger.valueOf(sm.getBlock().getHeight() + 100);
+        var ids = registerProposals(proposer, timerHeight, 3);
+        govScore.invoke(owner, "voteProposal", ids.get(0), 1);
+
+        var before = chainScoreMock.getPenalizeCount();
+        assertEquals(3, fireTimer(timerHeight));
+        // non-voters of all the proposals are penalized in a call, once for each proposal they missed
+        assertEquals(before + 1, chainScoreMock.getPenalizeCount());
+        var penalized = chainScoreMock.getLastPenalized();
+        assertEquals(5, penalized.length);
+        int missed = 0;
+        for (Address prep : penalized) {
+            if (prep.equals(alice.getAddress())) {
+                missed++;
+            }
+        }
+        assertEquals(3, missed);
+    }
+
+    @Test
+    void onTimerBucketOrder() {
+        var proposer = sm.createAccount(3000);
+        var timerHeight = BigInteger.valueOf(sm.getBlock().getHeight() + 100);
+        var ids = registerProposals(proposer, timerHeight, 4);
+        // canceling moves the last one of the bucket into the slot
+        govScore.invoke(proposer, "cancelProposal", (Object) ids.get(1));
+
+        assertEquals(3, fireTimer(timerHeight));
+        // the bucket is processed from the first one, and the latest disapproved one is listed first
+        var expected = List.of(ids.get(2), ids.get(3), ids.get(0));
+        var disapproved = getProposalIds(govScore, NetworkProposal.DISAPPROVED_STATUS, expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), disapproved.get(i));
+        }
+    }
 }
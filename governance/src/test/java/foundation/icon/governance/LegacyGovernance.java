@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 ICON Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package foundation.icon.governance;
+
+import score.Address;
+import score.ArrayDB;
+import score.Context;
+import score.DictDB;
+import score.VarDB;
+import score.annotation.External;
+
+// Governance which writes records in the formats of the previous versions and reads stored records, for tests
+public class LegacyGovernance extends Governance {
+    private final DictDB<byte[], byte[]> proposalList = Context.newDictDB("proposal_list", byte[].class);
+    private final ArrayDB<byte[]> proposalListKeys = Context.newArrayDB("proposal_list_keys", byte[].class);
+    private final DictDB<byte[], Proposal> proposalDict = Context.newDictDB("proposals", Proposal.class);
+    private final ArrayDB<byte[]> proposalKeys = Context.newArrayDB("proposal_keys", byte[].class);
+    private final DictDB<byte[], Proposal.Header> proposalHeaders =
+            Context.newDictDB("proposal_headers", Proposal.Header.class);
+    private final ArrayDB<Address> auditorList = Context.newArrayDB("auditor_list", Address.class);
+    private final VarDB<Boolean> auditorIndexed = Context.newVarDB("auditor_indexed", Boolean.class);
+
+    // auditor added before the auditor index
+    @External
+    public void addLegacyAuditor(Address address) {
+        auditorList.add(address);
+        auditorIndexed.set(null);
+    }
+
+    // runs the constructor as an update of the SCORE does
+    @External
+    public void update() {
+        new LegacyGovernance();
+    }
+
+    // proposal written in JSON by Python version
+    @External
+    public void addJsonProposal(byte[] id, String json) {
+        proposalList.set(id, json.getBytes());
+        proposalListKeys.add(id);
+    }
+
+    // proposal written in a single record before the header/body split and the secondary indexes
+    @External
+    public void addRecordProposal(byte[] id, String json) {
+        proposalDict.set(id, Proposal.loadJson(json.getBytes()));
+        proposalKeys.add(id);
+    }
+
+    // id of the electorate snapshot which the proposal refers to
+    @External(readonly = true)
+    public byte[] getElectorateId(byte[] id) {
+        return proposalHeaders.get(id).getProposal().electorate;
+    }
+}
@@ -21,7 +21,14 @@ import com.eclipsesource.json.JsonObject;
 import com.eclipsesource.json.JsonValue;
 import com.iconloop.score.test.ManualRevertException;
 import org.junit.jupiter.api.Test;
+import score.Address;
+import score.Context;
 
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class RequestTest {
@@ -52,4 +59,29 @@ public class RequestTest {
             assertThrows(ManualRevertException.class, () -> Request.fromJson(jsonObject));
         }
     }
+
+    private static Request.Param writeAndRead(Request.Param p) {
+        var w = Context.newByteArrayObjectWriter("RLPn");
+        w.write(p);
+        var r = Context.newByteArrayObjectReader("RLPn", w.toByteArray());
+        return r.read(Request.Param.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void nullableAddressParams() {
+        var none = new String[0];
+        assertNull(writeAndRead(new Request.Param("Address", none, none,
+                Request.Param.convertParam("Address", "", none, none))).getParam());
+
+        var names = new String[]{"name", "address"};
+        var types = new String[]{"str", "Address"};
+        var value = Request.Param.convertParam("[]struct",
+                "[{\"name\":\"bob\",\"address\":\"\"},{\"name\":\"alice\",\"address\":\"hx2111111111111111111111111111111111111111\"}]",
+                names, types);
+        var list = (List<Map<String, Object>>) writeAndRead(new Request.Param("[]struct", names, types, value)).getParam();
+        assertEquals(2, list.size());
+        assertNull(list.get(0).get("address"));
+        assertEquals(Address.fromString("hx2111111111111111111111111111111111111111"), list.get(1).get("address"));
+    }
 }
@@ -23,12 +23,67 @@ import score.annotation.External;
 import score.annotation.Payable;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class ChainScore {
     public static final Address ADDRESS = Address.fromString("cx0000000000000000000000000000000000000000");
     public static final Address GOV_ADDRESS = Address.fromString("cx0000000000000000000000000000000000000001");
+    public static final Address BLOCKED_SCORE = Address.fromString("cx00000000000000000000000000000000000000bb");
+
+    private final Set<BigInteger> timers = new HashSet<>();
+    private final List<Address> mainPReps = new ArrayList<>(List.of(
+            Address.fromString("hx0000000000000000000000000000000000000100"),
+            Address.fromString("hx0000000000000000000000000000000000000101")
+    ));
+    private final Map<String, BigInteger> stepCosts = new HashMap<>();
+    private Delegation lastDelegation;
+    private int penalizeCount;
+    private Address[] lastPenalized;
+    private BigInteger revision = BigInteger.valueOf(20);
+    private BigInteger termPeriod = BigInteger.valueOf(1000);
+    private BigInteger termEndBlockHeight = BigInteger.valueOf(200);
+
+    public BigInteger stepCostOf(String type) {
+        return stepCosts.get(type);
+    }
+
+    public Delegation getLastDelegation() {
+        return lastDelegation;
+    }
+
+    public int getPenalizeCount() {
+        return penalizeCount;
+    }
+
+    public Address[] getLastPenalized() {
+        return lastPenalized;
+    }
+
+    public boolean hasTimer(BigInteger height) {
+        return timers.contains(height);
+    }
+
+    public void addMainPRep(Address address) {
+        mainPReps.add(address);
+    }
+
+    public void removeMainPRep(Address address) {
+        mainPReps.remove(address);
+    }
+
+    public void setRevision(BigInteger revision) {
+        this.revision = revision;
+    }
+
+    public void setPRepTerm(BigInteger period, BigInteger endBlockHeight) {
+        termPeriod = period;
+        termEndBlockHeight = endBlockHeight;
+    }
 
     @Payable
     @External
@@ -41,16 +96,56 @@ public class ChainScore {
         Context.println(">>> ChainScore.claimIScore");
     }
 
+    @External
+    public void acceptScore(byte[] txHash) {
+        Context.println(">>> ChainScore.acceptScore, txHash=" + Converter.bytesToHex(txHash));
+    }
+
+    @External
+    public void rejectScore(byte[] txHash) {
+        Context.println(">>> ChainScore.rejectScore, txHash=" + Converter.bytesToHex(txHash));
+    }
+
     @External
     public void addTimer(BigInteger height) {
         Context.println(">>> ChainScore.addTimer, height=" + height);
+        timers.add(height);
+    }
+
+    @External
+    public void removeTimer(BigInteger height) {
+        Context.println(">>> ChainScore.removeTimer, height=" + height);
+        timers.remove(height);
+    }
+
+    // calls onTimer of the governance as the chain does when the block height reaches a timer
+    @External
+    public void fireTimer(Address governance) {
+        Context.println(">>> ChainScore.fireTimer, height=" + Context.getBlockHeight());
+        timers.remove(BigInteger.valueOf(Context.getBlockHeight()));
+        Context.call(governance, "onTimer");
     }
 
     @External(readonly=true)
     public BigInteger getRevision() {
-        final BigInteger rev = BigInteger.valueOf(20);
-        Context.println(">>> ChainScore.getRevision, rev=" + rev);
-        return rev;
+        Context.println(">>> ChainScore.getRevision, rev=" + revision);
+        return revision;
+    }
+
+    @External(readonly=true)
+    public List<Address> getBlockedScores() {
+        Context.println(">>> ChainScore.getBlockedScores");
+        return List.of(BLOCKED_SCORE);
+    }
+
+    @External
+    public void blockScore(Address address) {
+        Context.println(">>> ChainScore.blockScore, address=" + address);
+    }
+
+    @External
+    public void unblockScore(Address address) {
+        Context.println(">>> ChainScore.unblockScore, address=" + address);
     }
 
     @External(readonly=true)
@@ -63,8 +158,9 @@ public class ChainScore {
     public Map<String, Object> getPRepTerm() {
         Context.println(">>> ChainScore.getPRepTerm");
         return Map.ofEntries(
-                Map.entry("period", BigInteger.valueOf(1000)),
-                Map.entry("endBlockHeight", BigInteger.valueOf(200))
+                Map.entry("sequence", BigInteger.ONE),
+                Map.entry("period", termPeriod),
+                Map.entry("endBlockHeight", termEndBlockHeight)
         );
     }
 
@@ -83,19 +179,15 @@ public class ChainScore {
     @External(readonly=true)
     public Map<String, List<Map<String, Object>>> getMainPReps() {
         Context.println(">>> ChainScore.getMainPReps");
-        return Map.of("preps", List.of(
-                Map.ofEntries(
-                        Map.entry("name", "TestPRep1"),
-                        Map.entry("address", Address.fromString("hx0000000000000000000000000000000000000100")),
-                        Map.entry("power", BigInteger.valueOf(1_000_000L))
-                ),
-                Map.ofEntries(
-                        Map.entry("name", "TestPRep2"),
-                        Map.entry("address", Address.fromString("hx0000000000000000000000000000000000000101")),
-                        Map.entry("power", BigInteger.valueOf(2_000_000L))
-                )
-            )
-        );
+        var preps = new ArrayList<Map<String, Object>>();
+        for (int i = 0; i < mainPReps.size(); i++) {
+            preps.add(Map.ofEntries(
+                    Map.entry("name", "TestPRep" + (i + 1)),
+                    Map.entry("address", mainPReps.get(i)),
+                    Map.entry("power", BigInteger.valueOf(1_000_000L * (i + 1)))
+            ));
+        }
+        return Map.of("preps", preps);
     }
 
     @External
@@ -123,6 +215,8 @@ public class ChainScore {
         }
         prepAddresses.append("]");
         Context.println(">>> ChainScore.penalizeNonvoters, preps=" + prepAddresses);
+        penalizeCount++;
+        lastPenalized = preps;
     }
 
     static public class Delegation {
@@ -173,6 +267,13 @@ public class ChainScore {
     public void testStructCall(Delegation delegation) {
         Context.println(">>> ChainScore.testStructCall");
         Context.println("  - " + delegation);
+        lastDelegation = delegation;
+    }
+
+    @External
+    public void setStepCost(String type, BigInteger cost) {
+        Context.println(">>> ChainScore.setStepCost, type=" + type + ", cost=" + cost);
+        stepCosts.put(type, cost);
     }
 
     @External